@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs the glyph boxes of a font into 1024 x 1024 pages with {@link AtlasPacker} and with the old list packer, a new
+ * page is started when a glyph doesn't fit. The pages used by each packer are printed at the end of a trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtlasPackerBenchmark {
+
+    private static final int PAGE = FontAtlas.SIZE;
+
+    // Glyph boxes of a 32px Latin font or a 64px CJK font
+    @Param({"latin", "cjk"})
+    public String glyphs;
+
+    @Param({"1000", "5000"})
+    public int count;
+
+    private int[] widths;
+    private int[] heights;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        boolean cjk = glyphs.equals("cjk");
+        widths = new int[count];
+        heights = new int[count];
+        for (int i = 0; i < count; i++) {
+            widths[i] = cjk ? 48 + random.nextInt(17) : 6 + random.nextInt(20);
+            heights[i] = cjk ? 48 + random.nextInt(17) : 14 + random.nextInt(12);
+        }
+    }
+
+    @TearDown
+    public void report() {
+        System.out.printf("%n%s x %d: AtlasPacker %d pages, ListPacker %d pages%n", glyphs, count, atlasPacker(),
+                listPacker());
+    }
+
+    @Benchmark
+    public int atlasPacker() {
+        AtlasPacker packer = new AtlasPacker(PAGE, PAGE);
+        int pages = 1;
+        for (int i = 0; i < count; i++)
+            if (packer.pack(widths[i], heights[i]) == null) {
+                packer = new AtlasPacker(PAGE, PAGE);
+                packer.pack(widths[i], heights[i]);
+                pages++;
+            }
+        return pages;
+    }
+
+    @Benchmark
+    public int listPacker() {
+        ListPacker packer = new ListPacker(PAGE, PAGE);
+        int pages = 1;
+        for (int i = 0; i < count; i++)
+            if (packer.pack(widths[i], heights[i]) == null) {
+                packer = new ListPacker(PAGE, PAGE);
+                packer.pack(widths[i], heights[i]);
+                pages++;
+            }
+        return pages;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.opengl.GL;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * Loads fonts for the benchmarks. A font needs a GL context for its texture array, so a hidden window is made and its
+ * context is made current on the calling thread.
+ */
+final class BenchmarkFonts {
+
+    private static long window;
+
+    private BenchmarkFonts() {
+    }
+
+    // Glyphs are rasterized on the calling thread
+    static VertexFont load(String path, int size) throws IOException {
+        if (window == 0) {
+            if (!GLFW.glfwInit())
+                throw new IllegalStateException("Unable to initialize GLFW");
+            GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_FALSE);
+            window = GLFW.glfwCreateWindow(16, 16, "Benchmark", 0, 0);
+            if (window == 0)
+                throw new IllegalStateException("Unable to create the GL context");
+        }
+        GLFW.glfwMakeContextCurrent(window);
+        GL.createCapabilities();
+        try (InputStream stream = new FileInputStream(path)) {
+            return new VertexFont(stream, size).setAsync(false);
+        }
+    }
+
+    static void close() {
+        if (window == 0)
+            return;
+        GLFW.glfwDestroyWindow(window);
+        GLFW.glfwTerminate();
+        window = 0;
+    }
+
+    // Words of 1 to 10 letters, a paragraph of the length without line breaks
+    static String paragraph(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder(length + 10);
+        while (builder.length() < length) {
+            int word = 1 + random.nextInt(10);
+            for (int i = 0; i < word; i++)
+                builder.append((char) ('a' + random.nextInt(26)));
+            builder.append(' ');
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
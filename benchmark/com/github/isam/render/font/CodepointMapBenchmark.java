@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the glyphs of a text of 10k codepoints. Before {@link CodepointMap}, VertexFont found the atlas of a
+ * codepoint in a tree map with containsKey and get, then the atlas found the glyph in its own tree map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodepointMapBenchmark {
+
+    private static final int LENGTH = 10000;
+
+    // ASCII, or common ideographs with a few supplementary ones
+    @Param({"latin", "cjk"})
+    public String text;
+
+    private int[] codepoints;
+    private CodepointMap<Object> codepointMap;
+    private Int2ObjectMap<Object> treeAtlases;
+    private Int2ObjectMap<Object> treeGlyphs;
+    private Int2ObjectMap<Object> hashMap;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        codepoints = new int[LENGTH];
+        codepointMap = new CodepointMap<>();
+        treeAtlases = new Int2ObjectAVLTreeMap<>();
+        treeGlyphs = new Int2ObjectAVLTreeMap<>();
+        hashMap = new Int2ObjectOpenHashMap<>();
+        Object atlas = new Object();
+        for (int i = 0; i < LENGTH; i++) {
+            int codepoint;
+            if (text.equals("latin"))
+                codepoint = 0x20 + random.nextInt(0x5F);
+            else
+                codepoint = random.nextInt(50) == 0 ? 0x20000 + random.nextInt(200) : 0x4E00 + random.nextInt(3000);
+            codepoints[i] = codepoint;
+            Object glyph = new Object();
+            if (!codepointMap.containsKey(codepoint)) {
+                codepointMap.put(codepoint, glyph);
+                treeAtlases.put(codepoint, atlas);
+                treeGlyphs.put(codepoint, glyph);
+                hashMap.put(codepoint, glyph);
+            }
+        }
+    }
+
+    @Benchmark
+    public void codepointMap(Blackhole blackhole) {
+        for (int codepoint : codepoints)
+            blackhole.consume(codepointMap.get(codepoint));
+    }
+
+    @Benchmark
+    public void treeMaps(Blackhole blackhole) {
+        for (int codepoint : codepoints)
+            if (treeAtlases.containsKey(codepoint)) {
+                blackhole.consume(treeAtlases.get(codepoint));
+                blackhole.consume(treeGlyphs.get(codepoint));
+            }
+    }
+
+    @Benchmark
+    public void hashMap(Blackhole blackhole) {
+        for (int codepoint : codepoints)
+            blackhole.consume(hashMap.get(codepoint));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures and breaks long paragraphs with the metrics of a real font. The font is given with
+ * {@code -p font=<path of a TrueType font>}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineBreakerBenchmark {
+
+    @Param("C:\\Windows\\Fonts\\arial.ttf")
+    public String font;
+
+    @Param({"1000", "10000", "100000"})
+    public int length;
+
+    private VertexFont vertexFont;
+    private LineBreaker breaker;
+    private LineBreaks breaks;
+    private String paragraph;
+
+    @Setup
+    public void setup() throws IOException {
+        vertexFont = BenchmarkFonts.load(font, 32);
+        breaker = new LineBreaker(vertexFont, 16);
+        breaks = new LineBreaks();
+        paragraph = BenchmarkFonts.paragraph(length, 42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFonts.close();
+    }
+
+    @Benchmark
+    public float measure() {
+        return breaker.measure(paragraph);
+    }
+
+    @Benchmark
+    public LineBreaks breakGreedy() {
+        return breaker.breakGreedy(paragraph, 400, breaks);
+    }
+
+    @Benchmark
+    public LineBreaks breakOptimal() {
+        return breaker.breakOptimal(paragraph, 400, breaks);
+    }
+
+    @Benchmark
+    public String ellipsize() {
+        return breaker.ellipsize(paragraph, 400);
+    }
+}
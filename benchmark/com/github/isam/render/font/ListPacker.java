@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import com.github.isam.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The packer of FontAtlas before {@link AtlasPacker}: the spare space is a list scanned for the first fitting
+ * rectangle. Kept as it was, including the insertion which compares with the first element only.
+ */
+final class ListPacker {
+
+    private final List<AABB> spareSpace = new ArrayList<>();
+
+    ListPacker(int width, int height) {
+        spareSpace.add(AABB.newAABB(0, 0, width, height));
+    }
+
+    // Returns null if there is no space for the rectangle
+    AABB pack(int width, int height) {
+        AABB minChunk = null;
+        for (AABB now : spareSpace) {
+            if (width <= now.getWidth() && height <= now.getHeight()) {
+                minChunk = now;
+                break;
+            }
+        }
+        if (minChunk == null)
+            return null;
+        AABB packed = AABB.newAABB(minChunk.minX, minChunk.minY, minChunk.minX + width, minChunk.minY + height);
+        spareSpace.remove(minChunk);
+        double widthLen = minChunk.getWidth() - width;
+        double heightLen = minChunk.getHeight() - height;
+        if (widthLen == 0 && heightLen == 0)
+            return packed;
+        if (widthLen == 0) {
+            insertAABB(AABB.newAABB(minChunk.minX, minChunk.minY + height, minChunk.maxX, minChunk.maxY));
+            return packed;
+        }
+        if (heightLen == 0) {
+            insertAABB(AABB.newAABB(minChunk.minX + width, minChunk.minY, minChunk.maxX, minChunk.maxY));
+            return packed;
+        }
+        double area1 = widthLen * height;
+        double area2 = heightLen * width;
+        if (area1 > area2) {
+            insertAABB(AABB.newAABB(minChunk.minX + width, minChunk.minY, minChunk.maxX, minChunk.maxY));
+            insertAABB(AABB.newAABB(minChunk.minX, minChunk.minY + height, minChunk.minX + width, minChunk.maxY));
+        } else {
+            insertAABB(AABB.newAABB(minChunk.minX, minChunk.minY + height, minChunk.maxX, minChunk.maxY));
+            insertAABB(AABB.newAABB(minChunk.minX + width, minChunk.minY, minChunk.maxX, minChunk.minY + height));
+        }
+        return packed;
+    }
+
+    private void insertAABB(AABB now) {
+        int position = 0;
+        for (; position < spareSpace.size(); position++)
+            if (compareAABB(spareSpace.get(0), now))
+                break;
+        spareSpace.add(position, now);
+    }
+
+    private static boolean compareAABB(AABB aabb1, AABB aabb2) {
+        double width1 = aabb1.getWidth();
+        double width2 = aabb2.getWidth();
+        double height1 = aabb1.getHeight();
+        double height2 = aabb2.getHeight();
+        double add1 = width1 + height1;
+        double add2 = width2 + height2;
+        if (add1 != add2)
+            return add1 - add2 > 0;
+        if (width1 != width2)
+            return width1 - width2 > 0;
+        if (height1 != height2)
+            return height1 - height2 > 0;
+        return false;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends a char to a 10k-char text, laid out again from the end of the old text or from scratch. Every operation
+ * appends and then drops the char, so the text doesn't grow between operations. The font is given with
+ * {@code -p font=<path of a TrueType font>}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextLayoutBenchmark {
+
+    private static final float TEXT_SIZE = 16;
+
+    @Param("C:\\Windows\\Fonts\\arial.ttf")
+    public String font;
+
+    @Param("10000")
+    public int length;
+
+    private VertexFont vertexFont;
+    private String text;
+    private String appended;
+    private TextLayout layout;
+
+    @Setup
+    public void setup() throws IOException {
+        vertexFont = BenchmarkFonts.load(font, 32);
+        text = BenchmarkFonts.paragraph(length, 42);
+        appended = text + "x";
+        // Make all the glyphs before measuring
+        layout = TextLayout.layout(vertexFont, appended, TEXT_SIZE);
+        layout.relayout(vertexFont, text, TEXT_SIZE, length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkFonts.close();
+    }
+
+    @Benchmark
+    public TextLayout appendIncremental() {
+        layout.relayout(vertexFont, appended, TEXT_SIZE, length);
+        layout.relayout(vertexFont, text, TEXT_SIZE, length);
+        return layout;
+    }
+
+    @Benchmark
+    public TextLayout appendFromScratch() {
+        TextLayout.layout(vertexFont, appended, TEXT_SIZE);
+        return TextLayout.layout(vertexFont, text, TEXT_SIZE);
+    }
+}
@@ -1,30 +1,30 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package com.github.isam.input;
-
-import com.github.isam.phys.AABB;
-
-public class MouseEvent {
-
-    public static boolean checkInRange(AABB position, int xpos, int ypos) {
-        return position.contains(xpos, ypos);
-    }
-
-    public enum Type {
-        PRESS, REPEAT, RELEASE, SCROLL
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.input;
+
+import com.github.isam.phys.AABB;
+
+public class MouseEvent {
+
+    public static boolean checkInRange(AABB position, int xpos, int ypos) {
+        return position.contains(xpos, ypos);
+    }
+
+    public enum Type {
+        PRESS, REPEAT, RELEASE, SCROLL
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render;
+
+import com.github.isam.render.shader.ShaderProgram;
+import com.github.isam.render.texture.Texture;
+import com.github.isam.render.vertex.VertexArray;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The draws submitted by a subtree of components in a frame. A container keeps the commands of its children and
+ * submits them again while nothing in the subtree changed, instead of rendering the children. Components depending on
+ * state out of the tree are watched, and are asked by {@link Component#replay()} before the commands are replayed.
+ */
+public class RenderCommands {
+
+    // x1 y1 x2 y2 tx1 ty1 tx2 ty2 r g b
+    private static final int SPRITE_FLOATS = 11;
+
+    private final List<VertexArray> meshes = new ArrayList<>();
+    private final List<Texture> meshTextures = new ArrayList<>();
+    // layer depth
+    private final IntList meshKeys = new IntArrayList();
+    private final List<ShaderProgram> spriteShaders = new ArrayList<>();
+    private final List<Texture> spriteTextures = new ArrayList<>();
+    private float[] sprites = new float[16 * SPRITE_FLOATS];
+    private final IntList spriteLayers = new IntArrayList();
+    private final List<Component> watched = new ArrayList<>();
+    private boolean recorded;
+
+    public void begin() {
+        meshes.clear();
+        meshTextures.clear();
+        meshKeys.clear();
+        spriteShaders.clear();
+        spriteTextures.clear();
+        spriteLayers.clear();
+        watched.clear();
+        recorded = false;
+    }
+
+    public void end() {
+        recorded = true;
+    }
+
+    public boolean isRecorded() {
+        return recorded;
+    }
+
+    public void submit(VertexArray array, @Nullable Texture texture, int layer, int depth) {
+        meshes.add(array);
+        meshTextures.add(texture);
+        meshKeys.add(layer);
+        meshKeys.add(depth);
+    }
+
+    public void submitSprite(ShaderProgram shader, Texture texture, float x1, float y1, float x2, float y2, float tx1,
+                             float ty1, float tx2, float ty2, float r, float g, float b, int layer) {
+        int offset = spriteShaders.size() * SPRITE_FLOATS;
+        if (offset == sprites.length)
+            sprites = Arrays.copyOf(sprites, sprites.length * 2);
+        sprites[offset] = x1;
+        sprites[offset + 1] = y1;
+        sprites[offset + 2] = x2;
+        sprites[offset + 3] = y2;
+        sprites[offset + 4] = tx1;
+        sprites[offset + 5] = ty1;
+        sprites[offset + 6] = tx2;
+        sprites[offset + 7] = ty2;
+        sprites[offset + 8] = r;
+        sprites[offset + 9] = g;
+        sprites[offset + 10] = b;
+        spriteShaders.add(shader);
+        spriteTextures.add(texture);
+        spriteLayers.add(layer);
+    }
+
+    public void watch(Component component) {
+        watched.add(component);
+    }
+
+    // Returns false if a watched component must be rendered again, it is marked changed then
+    public boolean prepareReplay() {
+        for (int i = 0; i < watched.size(); i++) {
+            Component component = watched.get(i);
+            if (!component.replay()) {
+                component.markChanged();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Submit the commands through the renderer, so the commands of the outer containers record them too
+    public void replay(Renderer renderer) {
+        for (int i = 0; i < meshes.size(); i++)
+            renderer.submit(meshes.get(i), meshTextures.get(i), meshKeys.getInt(i * 2), meshKeys.getInt(i * 2 + 1));
+        for (int i = 0; i < spriteShaders.size(); i++) {
+            int offset = i * SPRITE_FLOATS;
+            renderer.submitSprite(spriteShaders.get(i), spriteTextures.get(i), sprites[offset], sprites[offset + 1],
+                    sprites[offset + 2], sprites[offset + 3], sprites[offset + 4], sprites[offset + 5],
+                    sprites[offset + 6], sprites[offset + 7], sprites[offset + 8], sprites[offset + 9],
+                    sprites[offset + 10], spriteLayers.getInt(i));
+        }
+        for (int i = 0; i < watched.size(); i++)
+            renderer.watch(watched.get(i));
+    }
+
+    public int getMeshes() {
+        return meshes.size();
+    }
+
+    public int getSprites() {
+        return spriteShaders.size();
+    }
+}
@@ -1,31 +1,50 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.github.isam.render;
-
-import com.github.isam.render.window.Window;
-
-public interface Renderer {
-
-    Window getWindow();
-
-    float getXPosition(int px);
-
-    float getYPosition(int px);
-
-    float getHorizonLength(int px);
-
-    float getVerticalLength(int px);
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.isam.render;
+
+import com.github.isam.render.shader.ShaderProgram;
+import com.github.isam.render.texture.Texture;
+import com.github.isam.render.vertex.MultiDrawQueue;
+import com.github.isam.render.vertex.SpriteBatch;
+import com.github.isam.render.vertex.VertexArray;
+import com.github.isam.render.window.Window;
+
+import javax.annotation.Nullable;
+
+public interface Renderer {
+
+    Window getWindow();
+
+    // Vertex positions are window pixels (y down), the shaders project them with the projection uniform
+
+    SpriteBatch getSpriteBatch();
+
+    MultiDrawQueue getDrawQueue();
+
+    // Components draw through these, the commands of the containers being rendered record the draws. Draws are sorted
+    // by layer (the z-index of the component) then by state, the depth orders the draws in the same state.
+    void submit(VertexArray array, @Nullable Texture texture, int layer, int depth);
+
+    void submitSprite(ShaderProgram shader, Texture texture, float x1, float y1, float x2, float y2, float tx1,
+                      float ty1, float tx2, float ty2, float r, float g, float b, int layer);
+
+    // The component is asked by Component#replay() before the recorded commands are replayed
+    void watch(Component component);
+
+    void beginCommands(RenderCommands commands);
+
+    void endCommands();
+}
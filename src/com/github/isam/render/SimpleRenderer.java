@@ -1,85 +1,162 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package com.github.isam.render;
-
-import com.github.isam.input.MouseInputListener;
-import com.github.isam.render.window.Window;
-
-public class SimpleRenderer implements Renderer, MouseInputListener {
-
-    private final Window window;
-    private final RootComponent component;
-
-    public SimpleRenderer(Window window) {
-        this.window = window;
-        component = new RootComponent(this);
-        window.setMouse(this);
-    }
-
-    @Override
-    public Window getWindow() {
-        return window;
-    }
-
-    @Override
-    public float getXPosition(int px) {
-        return 2.0f * px / window.getWidth() - 1;
-    }
-
-    @Override
-    public float getYPosition(int px) {
-        return 1 - 2.0f * px / window.getHeight();
-    }
-
-    @Override
-    public float getHorizonLength(int px) {
-        return 2.0f * px / window.getWidth();
-    }
-
-    @Override
-    public float getVerticalLength(int px) {
-        return 2.0f * px / window.getHeight();
-    }
-
-    public RootComponent getRoot() {
-        return component;
-    }
-
-    public void render() {
-        component.render();
-    }
-
-    @Override
-    public void onMouse(long window, int button, int action, int mods) {
-
-    }
-
-    @Override
-    public void onScroll(long window, double xoffset, double yoffset) {
-
-    }
-
-    @Override
-    public void onDrop(long window, int count, long names) {
-
-    }
-
-    @Override
-    public void onMove(long window, double xpos, double ypos) {
-
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render;
+
+import com.github.isam.input.MouseInputListener;
+import com.github.isam.render.shader.ShaderProgram;
+import com.github.isam.render.shader.Shaders;
+import com.github.isam.render.texture.Texture;
+import com.github.isam.render.vertex.MultiDrawQueue;
+import com.github.isam.render.vertex.SpriteBatch;
+import com.github.isam.render.vertex.VertexArray;
+import com.github.isam.render.window.Window;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SimpleRenderer implements Renderer, MouseInputListener {
+
+    private final Window window;
+    private final RootComponent component;
+    private final SpriteBatch batch;
+    private final MultiDrawQueue queue;
+    // The window size of the projection in the shaders
+    private int projectionWidth;
+    private int projectionHeight;
+    // Commands of the containers being rendered, every one of them records the draws
+    private final List<RenderCommands> recording = new ArrayList<>();
+
+    public SimpleRenderer(Window window) {
+        this.window = window;
+        batch = new SpriteBatch(1024);
+        queue = new MultiDrawQueue();
+        component = new RootComponent(this);
+        window.setMouse(this);
+    }
+
+    @Override
+    public Window getWindow() {
+        return window;
+    }
+
+    @Override
+    public SpriteBatch getSpriteBatch() {
+        return batch;
+    }
+
+    @Override
+    public MultiDrawQueue getDrawQueue() {
+        return queue;
+    }
+
+    @Override
+    public void submit(VertexArray array, @Nullable Texture texture, int layer, int depth) {
+        for (int i = 0; i < recording.size(); i++)
+            recording.get(i).submit(array, texture, layer, depth);
+        queue.submit(array, texture, layer, depth);
+    }
+
+    @Override
+    public void submitSprite(ShaderProgram shader, Texture texture, float x1, float y1, float x2, float y2, float tx1,
+                             float ty1, float tx2, float ty2, float r, float g, float b, int layer) {
+        for (int i = 0; i < recording.size(); i++)
+            recording.get(i).submitSprite(shader, texture, x1, y1, x2, y2, tx1, ty1, tx2, ty2, r, g, b, layer);
+        batch.draw(shader, texture, x1, y1, x2, y2, tx1, ty1, tx2, ty2, r, g, b, layer);
+    }
+
+    @Override
+    public void watch(Component component) {
+        for (int i = 0; i < recording.size(); i++)
+            recording.get(i).watch(component);
+    }
+
+    @Override
+    public void beginCommands(RenderCommands commands) {
+        commands.begin();
+        recording.add(commands);
+    }
+
+    @Override
+    public void endCommands() {
+        recording.remove(recording.size() - 1).end();
+    }
+
+    public RootComponent getRoot() {
+        return component;
+    }
+
+    // Follow the window size, must be called before anything is drawn in a frame. A resize only changes the
+    // projection, the meshes in pixels are kept.
+    public void updateProjection() {
+        if (window.getWidth() != projectionWidth || window.getHeight() != projectionHeight) {
+            projectionWidth = window.getWidth();
+            projectionHeight = window.getHeight();
+            Shaders.setProjection(projectionWidth, projectionHeight);
+        }
+    }
+
+    public void render() {
+        updateProjection();
+        component.render();
+        queue.prepare();
+        batch.prepare();
+        // Interleave the two by layer, the sprites are drawn over the meshes in the same layer
+        while (true) {
+            int meshLayer = queue.nextLayer();
+            int spriteLayer = batch.nextLayer();
+            if (meshLayer == Integer.MAX_VALUE && spriteLayer == Integer.MAX_VALUE)
+                break;
+            if (meshLayer <= spriteLayer)
+                queue.drawThrough(spriteLayer);
+            else
+                batch.drawThrough(meshLayer - 1);
+        }
+        queue.finish();
+        batch.finish();
+    }
+
+    // Draw calls of the last frame
+    public int getDrawCalls() {
+        return queue.getDrawCalls() + batch.getDrawCalls();
+    }
+
+    // Shader uses, texture binds and vertex array binds of the last frame
+    public int getStateChanges() {
+        return queue.getStateChanges() + batch.getStateChanges();
+    }
+
+    @Override
+    public void onMouse(long window, int button, int action, int mods) {
+
+    }
+
+    @Override
+    public void onScroll(long window, double xoffset, double yoffset) {
+
+    }
+
+    @Override
+    public void onDrop(long window, int count, long names) {
+
+    }
+
+    @Override
+    public void onMove(long window, double xpos, double ypos) {
+
+    }
+}
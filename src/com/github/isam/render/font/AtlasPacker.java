@@ -0,0 +1,246 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectAVLTreeSet;
+import it.unimi.dsi.fastutil.objects.ObjectSortedSet;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Guillotine rectangle packer. The free rectangles are indexed by height and then by width, so a query only visits
+ * the heights which can hold the rectangle and finds the narrowest fitting rectangle of every height in log time.
+ * <p>
+ * The free rectangle with the smallest shorter leftover side is chosen, ties are broken by the longer leftover side
+ * (best short side fit). It is split along the axis which keeps the larger leftover rectangle as big as possible.
+ * Freed rectangles are merged with the free rectangles sharing a whole edge with them, so evicted space can hold large
+ * rectangles again.
+ */
+public class AtlasPacker {
+
+    private static final Comparator<Rect> BY_WIDTH = Comparator.<Rect>comparingInt(rect -> rect.width)
+            .thenComparingInt(rect -> rect.y).thenComparingInt(rect -> rect.x);
+
+    private final int width;
+    private final int height;
+    // height -> free rectangles of the height sorted by width
+    private final Int2ObjectSortedMap<ObjectSortedSet<Rect>> free = new Int2ObjectAVLTreeMap<>();
+    // Free rectangles by corner, the free rectangles don't overlap so a corner belongs to one of them
+    private final Long2ObjectMap<Rect> byTopLeft = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<Rect> byTopRight = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<Rect> byBottomLeft = new Long2ObjectOpenHashMap<>();
+    private int freeRects;
+    private long usedArea;
+    private int packed;
+
+    public AtlasPacker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        addFree(new Rect(0, 0, width, height));
+    }
+
+    // Restore a packer from its free space and statistics
+    public AtlasPacker(int width, int height, List<Rect> freeSpace, int packed, long usedArea) {
+        this.width = width;
+        this.height = height;
+        for (Rect rect : freeSpace)
+            addFree(rect);
+        this.packed = packed;
+        this.usedArea = usedArea;
+    }
+
+    private void addFree(Rect rect) {
+        ObjectSortedSet<Rect> bucket = free.get(rect.height);
+        if (bucket == null)
+            free.put(rect.height, bucket = new ObjectAVLTreeSet<>(BY_WIDTH));
+        bucket.add(rect);
+        byTopLeft.put(corner(rect.x, rect.y), rect);
+        byTopRight.put(corner(rect.x + rect.width, rect.y), rect);
+        byBottomLeft.put(corner(rect.x, rect.y + rect.height), rect);
+        freeRects++;
+    }
+
+    private void removeFree(Rect rect) {
+        ObjectSortedSet<Rect> bucket = free.get(rect.height);
+        bucket.remove(rect);
+        if (bucket.isEmpty())
+            free.remove(rect.height);
+        byTopLeft.remove(corner(rect.x, rect.y));
+        byTopRight.remove(corner(rect.x + rect.width, rect.y));
+        byBottomLeft.remove(corner(rect.x, rect.y + rect.height));
+        freeRects--;
+    }
+
+    private static long corner(int x, int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    // Returns null if there is no space for the rectangle
+    @Nullable
+    public Rect pack(int width, int height) {
+        Preconditions.checkArgument(width > 0 && height > 0, "Invalid size %s x %s", width, height);
+        Rect probe = new Rect(Integer.MIN_VALUE, Integer.MIN_VALUE, width, 0);
+        Rect best = null;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+        for (ObjectSortedSet<Rect> bucket : free.tailMap(height).values()) {
+            Rect first = bucket.first();
+            // The leftover height only grows in the next buckets, nothing beats an exact side then
+            if (bestShortSide == 0 && first.height - height >= bestLongSide)
+                break;
+            // The widest one is the last, skip the buckets without a fitting width before searching
+            if (bucket.last().width < width)
+                continue;
+            Rect candidate = bucket.tailSet(probe).first();
+            int leftoverWidth = candidate.width - width;
+            int leftoverHeight = candidate.height - height;
+            int shortSide = Math.min(leftoverWidth, leftoverHeight);
+            int longSide = Math.max(leftoverWidth, leftoverHeight);
+            if (shortSide < bestShortSide || shortSide == bestShortSide && longSide < bestLongSide) {
+                best = candidate;
+                bestShortSide = shortSide;
+                bestLongSide = longSide;
+            }
+        }
+        if (best == null)
+            return null;
+        removeFree(best);
+        int rightWidth = best.width - width;
+        int bottomHeight = best.height - height;
+        if ((long) rightWidth * height > (long) bottomHeight * width) {
+            if (rightWidth > 0)
+                addFree(new Rect(best.x + width, best.y, rightWidth, best.height));
+            if (bottomHeight > 0)
+                addFree(new Rect(best.x, best.y + height, width, bottomHeight));
+        } else {
+            if (bottomHeight > 0)
+                addFree(new Rect(best.x, best.y + height, best.width, bottomHeight));
+            if (rightWidth > 0)
+                addFree(new Rect(best.x + width, best.y, rightWidth, height));
+        }
+        usedArea += (long) width * height;
+        packed++;
+        return new Rect(best.x, best.y, width, height);
+    }
+
+    // Give the space of a packed rectangle back, merged with the free neighbours of the same edge length
+    public void free(Rect rect) {
+        Preconditions.checkArgument(rect.x >= 0 && rect.y >= 0 && rect.x + rect.width <= width &&
+                rect.y + rect.height <= height, "%s is out of the packer", rect);
+        usedArea -= (long) rect.width * rect.height;
+        // The pieces of the splits can't always be merged back, start again when the packer is empty
+        if (--packed == 0) {
+            free.clear();
+            byTopLeft.clear();
+            byTopRight.clear();
+            byBottomLeft.clear();
+            freeRects = 0;
+            addFree(new Rect(0, 0, width, height));
+            return;
+        }
+        Rect merged = rect;
+        boolean merging = true;
+        while (merging) {
+            merging = false;
+            Rect right = byTopLeft.get(corner(merged.x + merged.width, merged.y));
+            if (right != null && right.height == merged.height) {
+                removeFree(right);
+                merged = new Rect(merged.x, merged.y, merged.width + right.width, merged.height);
+                merging = true;
+            }
+            Rect left = byTopRight.get(corner(merged.x, merged.y));
+            if (left != null && left.height == merged.height) {
+                removeFree(left);
+                merged = new Rect(left.x, merged.y, left.width + merged.width, merged.height);
+                merging = true;
+            }
+            Rect below = byTopLeft.get(corner(merged.x, merged.y + merged.height));
+            if (below != null && below.width == merged.width) {
+                removeFree(below);
+                merged = new Rect(merged.x, merged.y, merged.width, merged.height + below.height);
+                merging = true;
+            }
+            Rect above = byBottomLeft.get(corner(merged.x, merged.y));
+            if (above != null && above.width == merged.width) {
+                removeFree(above);
+                merged = new Rect(merged.x, above.y, merged.width, above.height + merged.height);
+                merging = true;
+            }
+        }
+        addFree(merged);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPacked() {
+        return packed;
+    }
+
+    public int getFreeRects() {
+        return freeRects;
+    }
+
+    public long getUsedArea() {
+        return usedArea;
+    }
+
+    // The ratio of the packed area to the whole area
+    public float getOccupancy() {
+        return (float) usedArea / ((long) width * height);
+    }
+
+    public List<Rect> getFreeSpace() {
+        List<Rect> rects = new ArrayList<>(freeRects);
+        for (ObjectSortedSet<Rect> bucket : free.values())
+            rects.addAll(bucket);
+        return rects;
+    }
+
+    public static class Rect {
+
+        public final int x;
+        public final int y;
+        public final int width;
+        public final int height;
+
+        public Rect(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public String toString() {
+            return "Rect[" + x + ", " + y + ", " + width + " x " + height + "]";
+        }
+    }
+}
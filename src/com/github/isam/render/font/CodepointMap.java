@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Map from codepoints to values for glyph lookups. The BMP is a two level table of 256 pages, pages are allocated
+ * when a codepoint in them is put, and the Latin page always exists. Supplementary codepoints are in an open
+ * addressing table with linear probing. A lookup is one array access in the BMP, and usually one probe out of it.
+ */
+public class CodepointMap<V> {
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int BMP_END = 0x10000;
+
+    private final Object[][] pages = new Object[BMP_END >> PAGE_BITS][];
+    // Supplementary codepoints, 0 marks an empty slot as it is in the BMP
+    private int[] keys = new int[16];
+    private Object[] values = new Object[16];
+    private int supplementary;
+    private int size;
+
+    public CodepointMap() {
+        pages[0] = new Object[PAGE_SIZE];
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(int codepoint) {
+        if (codepoint < BMP_END) {
+            if (codepoint < 0)
+                return null;
+            Object[] page = pages[codepoint >>> PAGE_BITS];
+            return page == null ? null : (V) page[codepoint & (PAGE_SIZE - 1)];
+        }
+        int mask = keys.length - 1;
+        for (int slot = HashCommon.mix(codepoint) & mask; keys[slot] != 0; slot = (slot + 1) & mask)
+            if (keys[slot] == codepoint)
+                return (V) values[slot];
+        return null;
+    }
+
+    public boolean containsKey(int codepoint) {
+        return get(codepoint) != null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(int codepoint, V value) {
+        if (codepoint < 0 || codepoint > Character.MAX_CODE_POINT)
+            throw new IllegalArgumentException("Invalid codepoint " + codepoint);
+        if (value == null)
+            throw new IllegalArgumentException("Null value of codepoint " + codepoint);
+        if (codepoint < BMP_END) {
+            Object[] page = pages[codepoint >>> PAGE_BITS];
+            if (page == null)
+                page = pages[codepoint >>> PAGE_BITS] = new Object[PAGE_SIZE];
+            int index = codepoint & (PAGE_SIZE - 1);
+            V old = (V) page[index];
+            page[index] = value;
+            if (old == null)
+                size++;
+            return old;
+        }
+        int mask = keys.length - 1;
+        int slot = HashCommon.mix(codepoint) & mask;
+        for (; keys[slot] != 0; slot = (slot + 1) & mask)
+            if (keys[slot] == codepoint) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+        keys[slot] = codepoint;
+        values[slot] = value;
+        size++;
+        // Keep the load under a half, the probes stay short
+        if (++supplementary * 2 > keys.length)
+            rehash(keys.length * 2);
+        return null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(int codepoint) {
+        if (codepoint < BMP_END) {
+            if (codepoint < 0)
+                return null;
+            Object[] page = pages[codepoint >>> PAGE_BITS];
+            if (page == null)
+                return null;
+            int index = codepoint & (PAGE_SIZE - 1);
+            V old = (V) page[index];
+            if (old != null) {
+                page[index] = null;
+                size--;
+            }
+            return old;
+        }
+        int mask = keys.length - 1;
+        for (int slot = HashCommon.mix(codepoint) & mask; keys[slot] != 0; slot = (slot + 1) & mask)
+            if (keys[slot] == codepoint) {
+                V old = (V) values[slot];
+                shiftKeys(slot);
+                supplementary--;
+                size--;
+                return old;
+            }
+        return null;
+    }
+
+    // Fill the removed slot with the following keys of the probe chain, so no tombstone is needed
+    private void shiftKeys(int slot) {
+        int mask = keys.length - 1;
+        while (true) {
+            int last = slot;
+            slot = (slot + 1) & mask;
+            int key;
+            while (true) {
+                if ((key = keys[slot]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int ideal = HashCommon.mix(key) & mask;
+                if (last <= slot ? last >= ideal || ideal > slot : last >= ideal && ideal > slot)
+                    break;
+                slot = (slot + 1) & mask;
+            }
+            keys[last] = key;
+            values[last] = values[slot];
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0)
+                continue;
+            int slot = HashCommon.mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0)
+                slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(pages, 1, pages.length, null);
+        Arrays.fill(pages[0], null);
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        supplementary = 0;
+        size = 0;
+    }
+
+    // Codepoints in the BMP are visited in order, then the supplementary ones in no order
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < pages.length; i++) {
+            Object[] page = pages[i];
+            if (page == null)
+                continue;
+            for (int j = 0; j < PAGE_SIZE; j++)
+                if (page[j] != null)
+                    consumer.accept((i << PAGE_BITS) | j, (V) page[j]);
+        }
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != 0)
+                consumer.accept(keys[i], (V) values[i]);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        void accept(int codepoint, V value);
+    }
+}
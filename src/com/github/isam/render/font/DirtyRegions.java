@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import java.util.Arrays;
+
+/**
+ * Merges the changed rectangles of an atlas into a few bounding rectangles, so a frame of new glyphs is uploaded in a
+ * few texture updates. A rectangle joins another one if their bounds waste little space, and the pair growing the
+ * least is merged when there are too many.
+ */
+class DirtyRegions {
+
+    // Upload calls per refresh at most
+    static final int MAX_REGIONS = 4;
+
+    // x1 y1 x2 y2
+    private int[] rects = new int[MAX_REGIONS * 2 * 4];
+    private int count;
+
+    void add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0)
+            return;
+        int x2 = x + width;
+        int y2 = y + height;
+        for (int i = 0; i < count; i++) {
+            int index = i * 4;
+            long union = (long) (Math.max(x2, rects[index + 2]) - Math.min(x, rects[index])) *
+                    (Math.max(y2, rects[index + 3]) - Math.min(y, rects[index + 1]));
+            // The bounds may upload as much unchanged space as changed space
+            if (union <= (area(i) + (long) width * height) * 2) {
+                merge(i, x, y, x2, y2);
+                return;
+            }
+        }
+        if (count * 4 == rects.length)
+            rects = Arrays.copyOf(rects, rects.length * 2);
+        int index = count++ * 4;
+        rects[index] = x;
+        rects[index + 1] = y;
+        rects[index + 2] = x2;
+        rects[index + 3] = y2;
+        while (count > MAX_REGIONS)
+            mergeClosest();
+    }
+
+    private long area(int i) {
+        int index = i * 4;
+        return (long) (rects[index + 2] - rects[index]) * (rects[index + 3] - rects[index + 1]);
+    }
+
+    private void merge(int i, int x1, int y1, int x2, int y2) {
+        int index = i * 4;
+        rects[index] = Math.min(rects[index], x1);
+        rects[index + 1] = Math.min(rects[index + 1], y1);
+        rects[index + 2] = Math.max(rects[index + 2], x2);
+        rects[index + 3] = Math.max(rects[index + 3], y2);
+    }
+
+    private void mergeClosest() {
+        int bestA = 0;
+        int bestB = 1;
+        long bestGrowth = Long.MAX_VALUE;
+        for (int a = 0; a < count; a++) {
+            int ia = a * 4;
+            for (int b = a + 1; b < count; b++) {
+                int ib = b * 4;
+                long union = (long) (Math.max(rects[ia + 2], rects[ib + 2]) - Math.min(rects[ia], rects[ib])) *
+                        (Math.max(rects[ia + 3], rects[ib + 3]) - Math.min(rects[ia + 1], rects[ib + 1]));
+                long growth = union - area(a) - area(b);
+                if (growth < bestGrowth) {
+                    bestGrowth = growth;
+                    bestA = a;
+                    bestB = b;
+                }
+            }
+        }
+        int ib = bestB * 4;
+        merge(bestA, rects[ib], rects[ib + 1], rects[ib + 2], rects[ib + 3]);
+        int last = --count * 4;
+        System.arraycopy(rects, last, rects, ib, 4);
+    }
+
+    int size() {
+        return count;
+    }
+
+    int getX(int i) {
+        return rects[i * 4];
+    }
+
+    int getY(int i) {
+        return rects[i * 4 + 1];
+    }
+
+    int getWidth(int i) {
+        return rects[i * 4 + 2] - rects[i * 4];
+    }
+
+    int getHeight(int i) {
+        return rects[i * 4 + 3] - rects[i * 4 + 1];
+    }
+
+    void clear() {
+        count = 0;
+    }
+}
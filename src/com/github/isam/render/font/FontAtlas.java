@@ -1,149 +1,191 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package com.github.isam.render.font;
-
-import com.github.isam.phys.AABB;
-import com.github.isam.render.texture.Image;
-import com.github.isam.render.texture.StaticTexture;
-import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import org.lwjgl.stb.STBTTFontinfo;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-public class FontAtlas {
-
-    private final Image image;
-    private final Int2ObjectMap<FontVertexInfos> chars = new Int2ObjectAVLTreeMap<>();
-    private final List<AABB> spareSpace = new ArrayList<>();
-    private final Queue<FontVertexInfos> toUpdates = new ConcurrentLinkedQueue<>();
-    private StaticTexture texture;
-    private final VertexFont font;
-
-    public FontAtlas(VertexFont font) {
-        image = new Image(Image.Format.LUMINANCE, 1024, 1024, false);
-        spareSpace.add(AABB.newAABB(0, 0, 1024, 1024));
-        this.font = font;
-    }
-
-    public Optional<FontVertexInfos> putBitmap(STBTTFontinfo font, int codepoint, float scale, int width, int height,
-                                               int xoff, int yoff, float leftSide, float advanceWidth, float topSide) {
-        // Find min chunk
-        AABB minChunk = null;
-        for (AABB now : spareSpace) {
-            if (width <= now.getWidth() && height <= now.getHeight()) {
-                minChunk = now;
-                break;
-            }
-        }
-        if (minChunk == null)
-            return Optional.empty();
-        // Put in
-        FontVertexInfos info = new FontVertexInfos();
-        info.atlas = this;
-        info.minU = (float) (minChunk.minX / 1024);
-        info.minV = (float) (minChunk.minY / 1024);
-        info.maxU = (float) ((minChunk.minX + width) / 1024);
-        info.maxV = (float) ((minChunk.minY + height) / 1024);
-        info.leftSide = leftSide;
-        info.advanceWidth = advanceWidth;
-        info.topSide = topSide;
-        chars.put(codepoint, info);
-        // Add to image
-        image.copyFromFont(font, codepoint, width, height, scale, scale, 0, 0, (int) minChunk.minX,
-                (int) minChunk.minY);
-        toUpdates.offer(info);
-        // Split
-        spareSpace.remove(minChunk);
-        double widthLen = minChunk.getWidth() - width;
-        double heightLen = minChunk.getHeight() - height;
-        if (widthLen == 0 && heightLen == 0)
-            return Optional.of(info);
-        if (widthLen == 0) {
-            insertAABB(AABB.newAABB(minChunk.minX, minChunk.minY + height, minChunk.maxX, minChunk.maxY));
-            return Optional.of(info);
-        }
-        if (heightLen == 0) {
-            insertAABB(AABB.newAABB(minChunk.minX + width, minChunk.minY, minChunk.maxX, minChunk.maxY));
-            return Optional.of(info);
-        }
-        double area1 = widthLen * height;
-        double area2 = heightLen * width;
-        if (area1 > area2) {
-            insertAABB(AABB.newAABB(minChunk.minX + width, minChunk.minY, minChunk.maxX, minChunk.maxY));
-            insertAABB(AABB.newAABB(minChunk.minX, minChunk.minY + height, minChunk.minX + width, minChunk.maxY));
-        } else {
-            insertAABB(AABB.newAABB(minChunk.minX, minChunk.minY + height, minChunk.maxX, minChunk.maxY));
-            insertAABB(AABB.newAABB(minChunk.minX + width, minChunk.minY, minChunk.maxX, minChunk.minY + height));
-        }
-        return Optional.of(info);
-    }
-
-    private void insertAABB(AABB now) {
-        int position = 0;
-        for (; position < spareSpace.size(); position++)
-            if (compareAABB(spareSpace.get(0), now))
-                break;
-        spareSpace.add(position, now);
-    }
-
-    private static boolean compareAABB(AABB aabb1, AABB aabb2) {
-        double width1 = aabb1.getWidth();
-        double width2 = aabb2.getWidth();
-        double height1 = aabb1.getHeight();
-        double height2 = aabb2.getHeight();
-        double add1 = width1 + height1;
-        double add2 = width2 + height2;
-        if (add1 != add2)
-            return add1 - add2 > 0;
-        if (width1 != width2)
-            return width1 - width2 > 0;
-        if (height1 != height2)
-            return height1 - height2 > 0;
-        return false;
-    }
-
-    public Image getImage() {
-        return image;
-    }
-
-    public FontVertexInfos getChar(int codepoint) {
-        return chars.get(codepoint);
-    }
-
-    public void refresh() {
-        if (texture == null)
-            texture = new StaticTexture(image, 0).setLinear(font.getSize() <= 32).setClamp(true);
-        while (!toUpdates.isEmpty()) {
-            FontVertexInfos info = toUpdates.poll();
-            int x = (int) (info.minU * 1024);
-            int y = (int) (info.minV * 1024);
-            int xSize = (int) ((info.maxU - info.minU) * 1024);
-            int ySize = (int) ((info.maxV - info.minV) * 1024);
-            texture.update(x, y, xSize, ySize);
-        }
-    }
-
-    public StaticTexture getTexture() {
-        refresh();
-        return texture;
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import com.github.isam.render.texture.Image;
+import com.github.isam.render.texture.TextureArray;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTruetype;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class FontAtlas {
+
+    // Width and height of the atlases
+    public static final int SIZE = 1024;
+
+    private final Image image;
+    private final CodepointMap<FontVertexInfos> chars = new CodepointMap<>();
+    private final AtlasPacker packer;
+    private final Queue<FontVertexInfos> toUpdates = new ConcurrentLinkedQueue<>();
+    // Only touched on the render thread
+    private final DirtyRegions dirtyRegions = new DirtyRegions();
+    private final VertexFont font;
+    // The layer of the atlas in the texture array of the font
+    private int layer = -1;
+
+    public FontAtlas(VertexFont font) {
+        this(font, new Image(Image.Format.LUMINANCE, SIZE, SIZE, false), new AtlasPacker(SIZE, SIZE));
+    }
+
+    // Used by the font cache, the glyphs are added by putCached()
+    FontAtlas(VertexFont font, Image image, AtlasPacker packer) {
+        this.font = font;
+        this.image = image;
+        this.packer = packer;
+    }
+
+    void putCached(int codepoint, FontVertexInfos info) {
+        info.atlas = this;
+        info.ready = true;
+        chars.put(codepoint, info);
+    }
+
+    CodepointMap<FontVertexInfos> getChars() {
+        return chars;
+    }
+
+    public Optional<FontVertexInfos> putBitmap(STBTTFontinfo font, int codepoint, float scale, int width, int height,
+                                               int xoff, int yoff, float leftSide, float advanceWidth, float topSide) {
+        Optional<FontVertexInfos> optional = reserve(codepoint, width, height, leftSide, advanceWidth, topSide);
+        optional.ifPresent(info -> rasterize(font, codepoint, scale, info));
+        return optional;
+    }
+
+    // Reserve the space of a glyph and draw a placeholder box in it, the bitmap is written by rasterize()
+    public Optional<FontVertexInfos> reserve(int codepoint, int width, int height, float leftSide, float advanceWidth,
+                                             float topSide) {
+        AtlasPacker.Rect rect = packer.pack(width, height);
+        if (rect == null)
+            return Optional.empty();
+        FontVertexInfos info = new FontVertexInfos();
+        info.atlas = this;
+        info.minU = rect.x / (float) SIZE;
+        info.minV = rect.y / (float) SIZE;
+        info.maxU = (rect.x + width) / (float) SIZE;
+        info.maxV = (rect.y + height) / (float) SIZE;
+        info.leftSide = leftSide;
+        info.advanceWidth = advanceWidth;
+        info.topSide = topSide;
+        chars.put(codepoint, info);
+        for (int x = rect.x; x < rect.x + width; x++) {
+            image.setLuminanceOrAlpha(x, rect.y, (byte) 0xFF);
+            image.setLuminanceOrAlpha(x, rect.y + height - 1, (byte) 0xFF);
+        }
+        for (int y = rect.y; y < rect.y + height; y++) {
+            image.setLuminanceOrAlpha(rect.x, y, (byte) 0xFF);
+            image.setLuminanceOrAlpha(rect.x + width - 1, y, (byte) 0xFF);
+        }
+        toUpdates.offer(info);
+        return Optional.of(info);
+    }
+
+    // Write the bitmap of a reserved glyph, can be called on any thread
+    public void rasterize(STBTTFontinfo font, int codepoint, float scale, FontVertexInfos info) {
+        int x = Math.round(info.minU * SIZE);
+        int y = Math.round(info.minV * SIZE);
+        int width = Math.round((info.maxU - info.minU) * SIZE);
+        int height = Math.round((info.maxV - info.minV) * SIZE);
+        image.fillLuminanceOrAlpha(x, y, width, height, (byte) 0);
+        if (this.font.isSDF()) {
+            try (MemoryStack stack = MemoryStack.stackPush()) {
+                IntBuffer sdfWidth = stack.mallocInt(1);
+                IntBuffer sdfHeight = stack.mallocInt(1);
+                IntBuffer xoff = stack.mallocInt(1);
+                IntBuffer yoff = stack.mallocInt(1);
+                ByteBuffer sdf = STBTruetype.stbtt_GetCodepointSDF(font, scale, codepoint, VertexFont.SDF_PADDING,
+                        VertexFont.SDF_ON_EDGE, VertexFont.SDF_PIXEL_DISTANCE_SCALE, sdfWidth, sdfHeight, xoff, yoff);
+                if (sdf != null) {
+                    image.copyFromLuminance(sdf, sdfWidth.get(0), Math.min(width, sdfWidth.get(0)),
+                            Math.min(height, sdfHeight.get(0)), x, y);
+                    STBTruetype.stbtt_FreeSDF(sdf);
+                }
+            }
+        } else
+            image.copyFromFont(font, codepoint, width, height, scale, scale, 0, 0, x, y);
+        info.ready = true;
+        toUpdates.offer(info);
+    }
+
+    private AtlasPacker.Rect getRect(FontVertexInfos info) {
+        int x = Math.round(info.minU * SIZE);
+        int y = Math.round(info.minV * SIZE);
+        return new AtlasPacker.Rect(x, y, Math.round(info.maxU * SIZE) - x, Math.round(info.maxV * SIZE) - y);
+    }
+
+    // Remove a glyph and give its space back to the packer
+    void evict(int codepoint) {
+        FontVertexInfos info = chars.remove(codepoint);
+        if (info != null)
+            packer.free(getRect(info));
+    }
+
+    // Move a ready glyph from its atlas into this one, returns false if there is no space
+    boolean moveIn(int codepoint, FontVertexInfos info) {
+        AtlasPacker.Rect from = getRect(info);
+        AtlasPacker.Rect rect = packer.pack(from.width, from.height);
+        if (rect == null)
+            return false;
+        image.copyRectFrom(info.atlas.image, from.x, from.y, rect.x, rect.y, rect.width, rect.height);
+        info.atlas = this;
+        info.minU = rect.x / (float) SIZE;
+        info.minV = rect.y / (float) SIZE;
+        info.maxU = (rect.x + rect.width) / (float) SIZE;
+        info.maxV = (rect.y + rect.height) / (float) SIZE;
+        chars.put(codepoint, info);
+        return true;
+    }
+
+    public AtlasPacker getPacker() {
+        return packer;
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    public FontVertexInfos getChar(int codepoint) {
+        return chars.get(codepoint);
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    void setLayer(int layer) {
+        this.layer = layer;
+    }
+
+    // Upload the changed glyphs to the layer of the atlas, merged into a few rectangles
+    void refresh(TextureArray texture) {
+        FontVertexInfos info;
+        while ((info = toUpdates.poll()) != null) {
+            int x = Math.round(info.minU * SIZE);
+            int y = Math.round(info.minV * SIZE);
+            dirtyRegions.add(x, y, Math.round(info.maxU * SIZE) - x, Math.round(info.maxV * SIZE) - y);
+        }
+        for (int i = 0; i < dirtyRegions.size(); i++)
+            texture.update(layer, dirtyRegions.getX(i), dirtyRegions.getY(i), dirtyRegions.getWidth(i),
+                    dirtyRegions.getHeight(i));
+        dirtyRegions.clear();
+    }
+}
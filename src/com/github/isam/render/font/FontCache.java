@@ -0,0 +1,224 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import com.github.isam.render.texture.Image;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves the atlases of a font to disk and restores them on the next launch, so the cached glyphs need no
+ * rasterization. A cache file is keyed by the hash of the font file, the size and the mode of the font, and holds the
+ * set of glyphs which were ready when it was saved. Glyphs out of the set are rasterized as usual, saving again
+ * writes the glyphs of both.
+ * <p>
+ * File layout: magic, version, atlas count, then for every atlas: size, glyphs (codepoint and metrics), packer state
+ * (packed count, used area, free rectangles), and the pixels.
+ */
+public class FontCache {
+
+    public static final Logger LOGGER = LogManager.getLogger("Font Cache");
+
+    private static final int MAGIC = 0x4953414D;
+    private static final int VERSION = 1;
+    // codepoint + 7 floats
+    private static final int GLYPH_BYTES = 32;
+    private static final int ATLAS_PIXELS = FontAtlas.SIZE * FontAtlas.SIZE;
+
+    private FontCache() {
+    }
+
+    public static Path getCacheFile(Path directory, VertexFont font) {
+        return directory.resolve(font.getHash() + "-" + font.getSize() + (font.isSDF() ? "-sdf" : "") + ".atlas");
+    }
+
+    public static void save(VertexFont font, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = getCacheFile(directory, font);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        List<FontAtlas> atlases = font.getAtlases();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(12).putInt(MAGIC).putInt(VERSION).putInt(atlases.size());
+            header.flip();
+            writeFully(channel, header);
+            for (FontAtlas atlas : atlases) {
+                AtlasPacker packer = atlas.getPacker();
+                List<AtlasPacker.Rect> freeSpace = packer.getFreeSpace();
+                // Glyphs still being rasterized are not saved
+                IntArrayList codepoints = new IntArrayList();
+                List<FontVertexInfos> glyphs = new ArrayList<>();
+                atlas.getChars().forEach((codepoint, info) -> {
+                    if (info.ready) {
+                        codepoints.add(codepoint);
+                        glyphs.add(info);
+                    }
+                });
+                ByteBuffer meta = ByteBuffer.allocate(12 + glyphs.size() * GLYPH_BYTES + 16 + freeSpace.size() * 16);
+                meta.putInt(packer.getWidth()).putInt(packer.getHeight()).putInt(glyphs.size());
+                for (int i = 0; i < glyphs.size(); i++) {
+                    FontVertexInfos info = glyphs.get(i);
+                    meta.putInt(codepoints.getInt(i)).putFloat(info.minU).putFloat(info.minV).putFloat(info.maxU)
+                            .putFloat(info.maxV).putFloat(info.leftSide).putFloat(info.advanceWidth)
+                            .putFloat(info.topSide);
+                }
+                meta.putInt(packer.getPacked()).putLong(packer.getUsedArea()).putInt(freeSpace.size());
+                for (AtlasPacker.Rect rect : freeSpace)
+                    meta.putInt(rect.x).putInt(rect.y).putInt(rect.width).putInt(rect.height);
+                meta.flip();
+                writeFully(channel, meta);
+                writeFully(channel, atlas.getImage().getPixels());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    // Restore the atlases of the font from the cache, the font must have no glyphs yet
+    public static boolean load(VertexFont font, Path directory) {
+        if (!font.getAtlases().isEmpty())
+            throw new IllegalStateException("The font already has glyphs");
+        Path file = getCacheFile(directory, font);
+        if (!Files.isRegularFile(file))
+            return false;
+        List<FontAtlas> atlases = new ArrayList<>();
+        // Read into the images instead of mapping, a mapped file can't be replaced on Windows until it is collected
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("The file is too large");
+            ByteBuffer header = read(channel, 12);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                LOGGER.warn("Ignored the font cache {} of another version", file);
+                return false;
+            }
+            int count = header.getInt();
+            checkCount(count, channel, ATLAS_PIXELS);
+            for (int i = 0; i < count; i++)
+                atlases.add(readAtlas(font, channel));
+            if (channel.position() != channel.size())
+                throw new IOException("Trailing bytes");
+            for (FontAtlas atlas : atlases)
+                font.addAtlas(atlas);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            LOGGER.warn("Can't read the font cache {}", file, e);
+            atlases.forEach(atlas -> atlas.getImage().close());
+            return false;
+        }
+        return true;
+    }
+
+    private static ByteBuffer read(FileChannel channel, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        readFully(channel, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            if (channel.read(buffer) < 0)
+                throw new EOFException();
+    }
+
+    // Counts from a corrupted file must not allocate more than the rest of the file
+    private static void checkCount(int count, FileChannel channel, long bytesEach) throws IOException {
+        if (count < 0 || count * bytesEach > channel.size() - channel.position())
+            throw new IOException("Invalid count " + count);
+    }
+
+    // NaN fails the comparisons
+    private static boolean isUV(float min, float max) {
+        return min >= 0 && min <= max && max <= 1;
+    }
+
+    private static FontAtlas readAtlas(VertexFont font, FileChannel channel) throws IOException {
+        ByteBuffer meta = read(channel, 12);
+        int width = meta.getInt();
+        int height = meta.getInt();
+        // The atlases are layers of one texture array
+        if (width != FontAtlas.SIZE || height != FontAtlas.SIZE)
+            throw new IOException("Invalid atlas size " + width + "x" + height);
+        int glyphCount = meta.getInt();
+        checkCount(glyphCount, channel, GLYPH_BYTES);
+        ByteBuffer glyphs = read(channel, glyphCount * GLYPH_BYTES);
+        int[] codepoints = new int[glyphCount];
+        FontVertexInfos[] infos = new FontVertexInfos[glyphCount];
+        for (int i = 0; i < glyphCount; i++) {
+            codepoints[i] = glyphs.getInt();
+            FontVertexInfos info = new FontVertexInfos();
+            info.minU = glyphs.getFloat();
+            info.minV = glyphs.getFloat();
+            info.maxU = glyphs.getFloat();
+            info.maxV = glyphs.getFloat();
+            info.leftSide = glyphs.getFloat();
+            info.advanceWidth = glyphs.getFloat();
+            info.topSide = glyphs.getFloat();
+            // Broken glyphs would be drawn wrong, and can't be freed from the packer when they are evicted
+            if (codepoints[i] < 0 || codepoints[i] > Character.MAX_CODE_POINT || !isUV(info.minU, info.maxU) ||
+                    !isUV(info.minV, info.maxV) || !Float.isFinite(info.leftSide) ||
+                    !Float.isFinite(info.advanceWidth) || !Float.isFinite(info.topSide))
+                throw new IOException("Invalid glyph of codepoint " + codepoints[i]);
+            infos[i] = info;
+        }
+        ByteBuffer packer = read(channel, 16);
+        int packed = packer.getInt();
+        long usedArea = packer.getLong();
+        int freeCount = packer.getInt();
+        checkCount(freeCount, channel, 16);
+        ByteBuffer rects = read(channel, freeCount * 16);
+        List<AtlasPacker.Rect> freeSpace = new ArrayList<>(freeCount);
+        for (int i = 0; i < freeCount; i++) {
+            AtlasPacker.Rect rect = new AtlasPacker.Rect(rects.getInt(), rects.getInt(), rects.getInt(),
+                    rects.getInt());
+            if (rect.x < 0 || rect.y < 0 || rect.width <= 0 || rect.height <= 0 || rect.x + rect.width > width ||
+                    rect.y + rect.height > height)
+                throw new IOException("Invalid free rectangle");
+            freeSpace.add(rect);
+        }
+        if (channel.size() - channel.position() < ATLAS_PIXELS)
+            throw new EOFException();
+        Image image = new Image(Image.Format.LUMINANCE, width, height, false);
+        try {
+            readFully(channel, image.getPixels());
+            FontAtlas atlas = new FontAtlas(font, image, new AtlasPacker(width, height, freeSpace, packed,
+                    usedArea));
+            for (int i = 0; i < glyphCount; i++)
+                atlas.putCached(codepoints[i], infos[i]);
+            return atlas;
+        } catch (IOException | RuntimeException e) {
+            image.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+/**
+ * The horizontal metrics of a font in pixels at its size, all a {@link LineBreaker} needs to measure text. The
+ * methods can be called on any thread.
+ */
+public interface FontMetrics {
+
+    int getSize();
+
+    float getAdvance(int codepoint);
+
+    // Added to the advance of the left codepoint
+    float getKerning(int left, int right);
+
+    boolean hasGlyph(int codepoint);
+}
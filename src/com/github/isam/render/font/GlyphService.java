@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.lwjgl.stb.STBTTFontinfo;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rasterizes glyph bitmaps on a pool of worker threads. The atlas slot of a glyph is reserved on the calling thread,
+ * so the text can be laid out at once, and it shows a placeholder box until the bitmap is written. The finished glyph
+ * is queued in the updates of its atlas and uploaded by the render thread in {@link VertexFont#getTexture()}.
+ */
+public class GlyphService {
+
+    public static final Logger LOGGER = LogManager.getLogger("Glyph Service");
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final AtomicInteger PENDING = new AtomicInteger();
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                Thread thread = new Thread(runnable, "Glyph Rasterizer #" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private GlyphService() {
+    }
+
+    public static void rasterize(FontAtlas atlas, STBTTFontinfo font, int codepoint, float scale,
+                                 FontVertexInfos info) {
+        PENDING.incrementAndGet();
+        WORKERS.execute(() -> {
+            try {
+                atlas.rasterize(font, codepoint, scale, info);
+            } catch (Throwable e) {
+                LOGGER.error("Can't rasterize the glyph of codepoint {}", codepoint, e);
+            } finally {
+                PENDING.decrementAndGet();
+            }
+        });
+    }
+
+    // Glyphs submitted but not written yet
+    public static int getPending() {
+        return PENDING.get();
+    }
+
+    public static void shutdown() {
+        WORKERS.shutdownNow();
+    }
+}
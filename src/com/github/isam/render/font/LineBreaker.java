@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+/**
+ * Measures and breaks text from the {@link FontMetrics} of a font, no glyph is made and nothing touches GL. The
+ * widths are the same as in {@link TextLayout}: advances with kerning, spaces and tabs. A breaker holds no mutable
+ * state, so it can be used by any threads, each with its own {@link LineBreaks}.
+ * <p>
+ * Lines break after whitespace, around ideographs and at '\n'. A word wider than the line is broken between chars.
+ */
+public class LineBreaker {
+
+    public static final String ELLIPSIS = "\u2026";
+    private static final String ELLIPSIS_FALLBACK = "...";
+    // Running over the width is much worse than any slack in optimal breaking
+    private static final double OVERFLOW_PENALTY = 1000;
+
+    private final FontMetrics font;
+    private final float textSize;
+    private final float factor;
+    private final String ellipsis;
+    private final float ellipsisWidth;
+
+    public LineBreaker(FontMetrics font, float textSize) {
+        this.font = font;
+        this.textSize = textSize;
+        factor = textSize / font.getSize();
+        ellipsis = font.hasGlyph(0x2026) ? ELLIPSIS : ELLIPSIS_FALLBACK;
+        ellipsisWidth = measure(ellipsis);
+    }
+
+    public FontMetrics getFont() {
+        return font;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    public String getEllipsis() {
+        return ellipsis;
+    }
+
+    public float measure(CharSequence text) {
+        return measure(text, 0, text.length());
+    }
+
+    public float measure(CharSequence text, int start, int end) {
+        float width = 0;
+        int previous = -1;
+        for (int i = start; i < end; ) {
+            int codepoint = Character.codePointAt(text, i);
+            if (previous >= 0)
+                width += font.getKerning(previous, codepoint);
+            width += font.getAdvance(codepoint);
+            previous = codepoint;
+            i += Character.charCount(codepoint);
+        }
+        return width * factor;
+    }
+
+    // Take each line as long as it fits
+    public LineBreaks breakGreedy(CharSequence text, float maxWidth, LineBreaks breaks) {
+        collect(text, maxWidth, breaks);
+        int start = -1;
+        int last = -1;
+        for (int b = 0; b < breaks.opportunities; b++) {
+            if (breaks.boxPens[b] - startPen(breaks, start) > maxWidth) {
+                if (last != start) {
+                    addLine(breaks, start, last);
+                    start = last;
+                    b--;
+                    continue;
+                }
+                // Nothing fits, a single char is wider than the line
+                addLine(breaks, start, b);
+                start = last = b;
+            } else if (breaks.forced[b]) {
+                addLine(breaks, start, b);
+                start = last = b;
+            } else
+                last = b;
+        }
+        return breaks;
+    }
+
+    // Minimize the sum of the squared slack of the lines, the last line of a paragraph is free
+    public LineBreaks breakOptimal(CharSequence text, float maxWidth, LineBreaks breaks) {
+        collect(text, maxWidth, breaks);
+        double[] costs = breaks.costs;
+        int[] previous = breaks.previous;
+        costs[0] = 0;
+        for (int b = 0; b < breaks.opportunities; b++) {
+            double best = Double.POSITIVE_INFINITY;
+            int from = -1;
+            for (int a = b - 1; a >= -1; a--) {
+                float width = breaks.boxPens[b] - startPen(breaks, a);
+                // Lines from earlier opportunities are even wider
+                if (width > maxWidth && a < b - 1)
+                    break;
+                double cost = costs[a + 1];
+                if (width > maxWidth)
+                    cost += (width - maxWidth) * (width - maxWidth) * OVERFLOW_PENALTY;
+                else if (!breaks.forced[b])
+                    cost += (maxWidth - width) * (maxWidth - width);
+                if (cost < best) {
+                    best = cost;
+                    from = a;
+                }
+                // A line can't span a forced break
+                if (a >= 0 && breaks.forced[a])
+                    break;
+            }
+            costs[b + 1] = best;
+            previous[b] = from;
+        }
+        for (int b = breaks.opportunities - 1; b >= 0; b = previous[b])
+            addLine(breaks, previous[b], b);
+        breaks.reverseLines();
+        return breaks;
+    }
+
+    // The end of the chars kept before the ellipsis so that both fit the width, or the end if the text fits
+    public int ellipsize(CharSequence text, int start, int end, float maxWidth) {
+        if (measure(text, start, end) <= maxWidth)
+            return end;
+        float width = 0;
+        int previous = -1;
+        int fit = start;
+        for (int i = start; i < end; ) {
+            int codepoint = Character.codePointAt(text, i);
+            float advance = font.getAdvance(codepoint);
+            if (previous >= 0)
+                advance += font.getKerning(previous, codepoint);
+            width += advance * factor;
+            if (width + ellipsisWidth > maxWidth)
+                break;
+            previous = codepoint;
+            i += Character.charCount(codepoint);
+            fit = i;
+        }
+        while (fit > start && Character.isWhitespace(text.charAt(fit - 1)))
+            fit--;
+        return fit;
+    }
+
+    public String ellipsize(String text, float maxWidth) {
+        int end = ellipsize(text, 0, text.length(), maxWidth);
+        return end == text.length() ? text : text.substring(0, end) + ellipsis;
+    }
+
+    private void collect(CharSequence text, float maxWidth, LineBreaks breaks) {
+        breaks.reset();
+        int length = text.length();
+        float pen = 0;
+        // End of the last char which is not whitespace
+        int contentEnd = 0;
+        float contentPen = 0;
+        // Start of the line after the last opportunity
+        int lineStart = 0;
+        float lineStartPen = 0;
+        int previous = -1;
+        boolean previousIdeographic = false;
+        for (int i = 0; i < length; ) {
+            int codepoint = Character.codePointAt(text, i);
+            int next = i + Character.charCount(codepoint);
+            if (codepoint == '\n') {
+                breaks.addOpportunity(contentEnd, contentPen, next, pen, true);
+                lineStart = contentEnd = next;
+                lineStartPen = contentPen = pen;
+                previous = -1;
+                previousIdeographic = false;
+                i = next;
+                continue;
+            }
+            float advance = font.getAdvance(codepoint);
+            if (previous >= 0)
+                advance += font.getKerning(previous, codepoint);
+            advance *= factor;
+            if (codepoint == ' ' || codepoint == '\t') {
+                pen += advance;
+                // One opportunity after the whitespace, trailing whitespace ends in the next forced break
+                if (next < length && !isBreakingWhitespace(text.charAt(next))) {
+                    breaks.addOpportunity(contentEnd, contentPen, next, pen, false);
+                    lineStart = next;
+                    lineStartPen = pen;
+                }
+                previousIdeographic = false;
+            } else {
+                boolean ideographic = Character.isIdeographic(codepoint);
+                if (i > lineStart && (ideographic || previousIdeographic ||
+                        pen + advance - lineStartPen > maxWidth)) {
+                    // Around ideographs, or in a word wider than the line
+                    breaks.addOpportunity(i, pen, i, pen, false);
+                    lineStart = i;
+                    lineStartPen = pen;
+                }
+                pen += advance;
+                contentEnd = next;
+                contentPen = pen;
+                previousIdeographic = ideographic;
+            }
+            previous = codepoint;
+            i = next;
+        }
+        breaks.addOpportunity(contentEnd, contentPen, length, pen, true);
+    }
+
+    private static boolean isBreakingWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n';
+    }
+
+    private static float startPen(LineBreaks breaks, int opportunity) {
+        return opportunity < 0 ? 0 : breaks.nextPens[opportunity];
+    }
+
+    private static void addLine(LineBreaks breaks, int from, int to) {
+        int start = from < 0 ? 0 : breaks.nexts[from];
+        int end = Math.max(start, breaks.boxEnds[to]);
+        breaks.addLine(start, end, Math.max(0, breaks.boxPens[to] - startPen(breaks, from)));
+    }
+}
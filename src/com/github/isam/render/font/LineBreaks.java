@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import java.util.Arrays;
+
+/**
+ * The lines of a text broken by a {@link LineBreaker}, with the scratch space of the breaker. Reusing an instance
+ * makes breaking allocation-free once the arrays are large enough. An instance must not be shared between threads.
+ */
+public class LineBreaks {
+
+    // Lines: start and end char indices, the trailing whitespace is not in the line
+    private int[] lineStarts = new int[16];
+    private int[] lineEnds = new int[16];
+    private float[] lineWidths = new float[16];
+    private int lines;
+
+    // Break opportunities: end of the line before it, start of the line after it, pen positions of both
+    int[] boxEnds = new int[64];
+    int[] nexts = new int[64];
+    float[] boxPens = new float[64];
+    float[] nextPens = new float[64];
+    boolean[] forced = new boolean[64];
+    int opportunities;
+
+    // Optimal breaking
+    double[] costs = new double[65];
+    int[] previous = new int[64];
+
+    void reset() {
+        lines = 0;
+        opportunities = 0;
+    }
+
+    void addOpportunity(int boxEnd, float boxPen, int next, float nextPen, boolean isForced) {
+        if (opportunities == boxEnds.length) {
+            int capacity = opportunities * 2;
+            boxEnds = Arrays.copyOf(boxEnds, capacity);
+            nexts = Arrays.copyOf(nexts, capacity);
+            boxPens = Arrays.copyOf(boxPens, capacity);
+            nextPens = Arrays.copyOf(nextPens, capacity);
+            forced = Arrays.copyOf(forced, capacity);
+            costs = new double[capacity + 1];
+            previous = new int[capacity];
+        }
+        boxEnds[opportunities] = boxEnd;
+        boxPens[opportunities] = boxPen;
+        nexts[opportunities] = next;
+        nextPens[opportunities] = nextPen;
+        forced[opportunities++] = isForced;
+    }
+
+    void addLine(int start, int end, float width) {
+        if (lines == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+            lineEnds = Arrays.copyOf(lineEnds, lines * 2);
+            lineWidths = Arrays.copyOf(lineWidths, lines * 2);
+        }
+        lineStarts[lines] = start;
+        lineEnds[lines] = end;
+        lineWidths[lines++] = width;
+    }
+
+    // Lines are added from the last one in optimal breaking
+    void reverseLines() {
+        for (int i = 0, j = lines - 1; i < j; i++, j--) {
+            int start = lineStarts[i];
+            lineStarts[i] = lineStarts[j];
+            lineStarts[j] = start;
+            int end = lineEnds[i];
+            lineEnds[i] = lineEnds[j];
+            lineEnds[j] = end;
+            float width = lineWidths[i];
+            lineWidths[i] = lineWidths[j];
+            lineWidths[j] = width;
+        }
+    }
+
+    public int getLineCount() {
+        return lines;
+    }
+
+    public int getLineStart(int line) {
+        return lineStarts[line];
+    }
+
+    public int getLineEnd(int line) {
+        return lineEnds[line];
+    }
+
+    public float getLineWidth(int line) {
+        return lineWidths[line];
+    }
+
+    public float getMaxLineWidth() {
+        float max = 0;
+        for (int i = 0; i < lines; i++)
+            max = Math.max(max, lineWidths[i]);
+        return max;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import com.github.isam.render.vertex.MeshBuilder;
+
+import java.util.Arrays;
+
+/**
+ * The glyph quads of a single line of text. The positions are in pixels relative to the top left of the text box, so
+ * a layout can be reused when the box moves or the window resizes.
+ * <p>
+ * A layout can be laid out again from a char index with {@link #relayout}, the glyphs before the index are kept. The
+ * layouts in a {@link TextLayoutCache} are shared, {@link #copy()} them before laying out again.
+ * <p>
+ * A layout is made in a generation of the font, it must be made again when the font evicts or moves glyphs.
+ */
+public class TextLayout {
+
+    // x1 y1 x2 y2 (pixels, y down) u1 v1 u2 v2
+    public static final int FLOATS_PER_GLYPH = 8;
+
+    private FontVertexInfos[] infos;
+    private float[] quads;
+    // The char index of every glyph
+    private int[] charIndexes;
+    private int glyphs;
+    // The pen position before every char and its kerning, the last one is the width
+    private float[] pens;
+    private int chars;
+    private int generation;
+
+    private TextLayout(int capacity) {
+        infos = new FontVertexInfos[capacity];
+        quads = new float[capacity * FLOATS_PER_GLYPH];
+        charIndexes = new int[capacity];
+        pens = new float[capacity + 1];
+    }
+
+    public static TextLayout layout(VertexFont font, String text, float textSize) {
+        TextLayout layout = new TextLayout(text.length());
+        layout.relayout(font, text, textSize, 0);
+        return layout;
+    }
+
+    public TextLayout copy() {
+        TextLayout layout = new TextLayout(0);
+        layout.infos = Arrays.copyOf(infos, infos.length);
+        layout.quads = Arrays.copyOf(quads, quads.length);
+        layout.charIndexes = Arrays.copyOf(charIndexes, charIndexes.length);
+        layout.pens = Arrays.copyOf(pens, pens.length);
+        layout.glyphs = glyphs;
+        layout.chars = chars;
+        layout.generation = generation;
+        return layout;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (charIndexes.length >= capacity)
+            return;
+        capacity = Math.max(charIndexes.length * 2, capacity);
+        infos = Arrays.copyOf(infos, capacity);
+        quads = Arrays.copyOf(quads, capacity * FLOATS_PER_GLYPH);
+        charIndexes = Arrays.copyOf(charIndexes, capacity);
+        pens = Arrays.copyOf(pens, capacity + 1);
+    }
+
+    // Lay out the text from the char index, the text before the index must be the same as the text laid out before.
+    // Returns the index of the first glyph laid out again.
+    public int relayout(VertexFont font, String text, float textSize, int from) {
+        from = Math.max(0, Math.min(from, Math.min(chars, text.length())));
+        if (from > 0 && Character.isHighSurrogate(text.charAt(from - 1)))
+            from--;
+        // The glyphs before the index are only kept in the same generation of the font
+        if (generation != font.getGeneration())
+            from = 0;
+        generation = font.getGeneration();
+        glyphs = getGlyphsBefore(from);
+        int firstGlyph = glyphs;
+        ensureCapacity(text.length());
+        float factor = textSize / font.getSize();
+        float nowPosition = pens[from];
+        for (int now = from; now < text.length(); ) {
+            int codepoint = text.codePointAt(now);
+            int next = now + Character.charCount(codepoint);
+            for (int i = now; i < next; i++)
+                pens[i] = nowPosition;
+            if (now > 0)
+                nowPosition += font.getKerning(text.codePointBefore(now), codepoint) * factor;
+            if (codepoint == ' ')
+                nowPosition += font.getSpaceLength() * factor;
+            else if (codepoint == '\t')
+                nowPosition += font.getSpaceLength() * 4 * factor;
+            else {
+                FontVertexInfos info = font.getCodepointInfo(codepoint);
+                float left = nowPosition + info.leftSide * factor;
+                float top = info.topSide * factor;
+                int index = glyphs * FLOATS_PER_GLYPH;
+                quads[index] = left;
+                quads[index + 1] = top;
+                quads[index + 2] = left + (info.maxU - info.minU) * FontAtlas.SIZE * factor;
+                quads[index + 3] = top + (info.maxV - info.minV) * FontAtlas.SIZE * factor;
+                quads[index + 4] = info.minU;
+                quads[index + 5] = info.minV;
+                quads[index + 6] = info.maxU;
+                quads[index + 7] = info.maxV;
+                infos[glyphs] = info;
+                charIndexes[glyphs++] = now;
+                nowPosition += info.advanceWidth * factor;
+            }
+            now = next;
+        }
+        pens[text.length()] = nowPosition;
+        chars = text.length();
+        return firstGlyph;
+    }
+
+    // The count of the glyphs made by the chars before the index
+    public int getGlyphsBefore(int charIndex) {
+        int low = 0;
+        int high = glyphs;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (charIndexes[middle] < charIndex)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    public int getGlyphs() {
+        return glyphs;
+    }
+
+    public FontAtlas getAtlas(int glyph) {
+        return infos[glyph].atlas;
+    }
+
+    // Mark the glyphs in use in the sweep of the font, so they are not evicted
+    public void touch(long clock) {
+        for (int i = 0; i < glyphs; i++)
+            infos[i].lastUsed = clock;
+    }
+
+    // The component of the glyph quad at the index, see FLOATS_PER_GLYPH
+    public float getQuad(int glyph, int index) {
+        return quads[glyph * FLOATS_PER_GLYPH + index];
+    }
+
+    // Write the glyphs from the index as instances in VertexFormat.QUAD_INSTANCE, for Shaders.FONT_INSTANCED
+    public void putInstances(MeshBuilder builder, int from, float left, float top, float r, float g, float b) {
+        for (int i = from; i < glyphs; i++) {
+            int quad = i * FLOATS_PER_GLYPH;
+            builder.quadInstance(Math.round(left + quads[quad]), Math.round(top + quads[quad + 3]),
+                    Math.round(left + quads[quad + 2]), Math.round(top + quads[quad + 1]), quads[quad + 4],
+                    quads[quad + 5], quads[quad + 6], quads[quad + 7], infos[i].atlas.getLayer(), r, g, b);
+        }
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getChars() {
+        return chars;
+    }
+
+    public float getWidth() {
+        return pens[chars];
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * LRU cache of text layouts keyed by font, text and text size. Labels switching between a few strings get
+ * their layouts from the cache instead of walking the codepoints again. Texts longer than {@link #MAX_CACHED_LENGTH}
+ * are laid out without caching. Layouts of an older generation of the font are never hit again, they leave the cache
+ * as the least recently used.
+ */
+public class TextLayoutCache {
+
+    // Longer texts rarely repeat, and their layouts are too large to keep
+    public static final int MAX_CACHED_LENGTH = 256;
+
+    private static final TextLayoutCache SHARED = new TextLayoutCache(512);
+
+    private final LinkedHashMap<Key, TextLayout> layouts;
+    private long hits;
+    private long misses;
+
+    public TextLayoutCache(int capacity) {
+        layouts = new LinkedHashMap<Key, TextLayout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, TextLayout> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static TextLayoutCache shared() {
+        return SHARED;
+    }
+
+    // Layouts don't depend on the box of the component, resized labels hit the same layout
+    public synchronized TextLayout get(VertexFont font, String text, float textSize) {
+        if (text.length() > MAX_CACHED_LENGTH)
+            return TextLayout.layout(font, text, textSize);
+        Key key = new Key(font, font.getGeneration(), text, textSize);
+        TextLayout layout = layouts.get(key);
+        if (layout != null) {
+            hits++;
+            return layout;
+        }
+        misses++;
+        layout = TextLayout.layout(font, text, textSize);
+        layouts.put(key, layout);
+        return layout;
+    }
+
+    public synchronized void clear() {
+        layouts.clear();
+    }
+
+    public synchronized int size() {
+        return layouts.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static class Key {
+
+        private final VertexFont font;
+        private final int generation;
+        private final String text;
+        private final float textSize;
+
+        private Key(VertexFont font, int generation, String text, float textSize) {
+            this.font = font;
+            this.generation = generation;
+            this.text = text;
+            this.textSize = textSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return font == key.font && generation == key.generation && text.equals(key.text) &&
+                    textSize == key.textSize;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(font), generation, text, textSize);
+        }
+    }
+}
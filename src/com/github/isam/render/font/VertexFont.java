@@ -1,135 +1,341 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package com.github.isam.render.font;
-
-import com.github.isam.render.texture.TextureUtil;
-import com.google.common.collect.Lists;
-import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import org.lwjgl.stb.STBTTFontinfo;
-import org.lwjgl.stb.STBTruetype;
-import org.lwjgl.system.MemoryStack;
-
-import javax.annotation.Nonnull;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-import java.util.List;
-import java.util.Optional;
-
-public class VertexFont {
-
-    private final int size;
-    private final STBTTFontinfo font;
-    private final List<FontAtlas> atlases = Lists.newArrayList();
-    private final Int2ObjectMap<FontAtlas> chars = new Int2ObjectAVLTreeMap<>();
-    private final float ascent;
-    private final float descent;
-    private final float lineGap;
-    private final float spaceLength;
-    private final float scale;
-    public VertexFont(InputStream fontFile, int size) throws IOException {
-        this.size = size;
-        font = STBTTFontinfo.create();
-        ByteBuffer buffer = TextureUtil.readResource(fontFile);
-        buffer.rewind();
-        if (!STBTruetype.stbtt_InitFont(font, buffer))
-            throw new IOException("Can't initialize font");
-        scale = STBTruetype.stbtt_ScaleForPixelHeight(font, size);
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            IntBuffer ascentBuf = stack.mallocInt(1);
-            IntBuffer descentBuf = stack.mallocInt(1);
-            IntBuffer lineGapBuf = stack.mallocInt(1);
-            STBTruetype.stbtt_GetFontVMetrics(font, ascentBuf, descentBuf, lineGapBuf);
-            ascent = ascentBuf.get(0) * scale;
-            descent = descentBuf.get(0) * scale;
-            lineGap = lineGapBuf.get(0) * scale;
-            IntBuffer advanceWidthBuf = stack.mallocInt(1);
-            IntBuffer leftSideBearingBuf = stack.mallocInt(1);
-            STBTruetype.stbtt_GetCodepointHMetrics(font, ' ', advanceWidthBuf, leftSideBearingBuf);
-            spaceLength = advanceWidthBuf.get(0) * scale;
-        }
-    }
-
-    public int getSize() {
-        return size;
-    }
-
-    public float getAscent() {
-        return ascent;
-    }
-
-    public float getDescent() {
-        return descent;
-    }
-
-    public float getLineGap() {
-        return lineGap;
-    }
-
-    public float getSpaceLength() {
-        return spaceLength;
-    }
-
-    @Nonnull
-    public FontVertexInfos getCodepointInfo(int codepoint) {
-        if (chars.containsKey(codepoint))
-            return chars.get(codepoint).getChar(codepoint);
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            IntBuffer leftBuf = stack.mallocInt(1);
-            IntBuffer bottomBuf = stack.mallocInt(1);
-            IntBuffer rightBuf = stack.mallocInt(1);
-            IntBuffer topBuf = stack.mallocInt(1);
-            STBTruetype.stbtt_GetCodepointBitmapBox(font, codepoint, scale, scale, leftBuf, bottomBuf, rightBuf,
-                    topBuf);
-            IntBuffer advanceWidthBuf = stack.mallocInt(1);
-            IntBuffer leftSideBearingBuf = stack.mallocInt(1);
-            STBTruetype.stbtt_GetCodepointHMetrics(font, codepoint, advanceWidthBuf, leftSideBearingBuf);
-            int left = leftBuf.get(0);
-            int bottom = bottomBuf.get(0);
-            int right = rightBuf.get(0);
-            int top = topBuf.get(0);
-            int width = right - left;
-            int height = top - bottom;
-            int advanceWidth = advanceWidthBuf.get(0);
-            int leftSideBearing = leftSideBearingBuf.get(0);
-            float convertL = leftSideBearing * scale;
-            float convertA = advanceWidth * scale;
-            if (width == 0 || height == 0)
-                throw new IllegalArgumentException("Can't generate the font bitmap - unrecorded character");
-            for (FontAtlas atlas : atlases) {
-                Optional<FontVertexInfos> optional = atlas.putBitmap(font, codepoint, scale, width, height, left, top,
-                        convertL, convertA, ascent + bottom);
-                if (optional.isPresent()) {
-                    chars.put(codepoint, atlas);
-                    return optional.get();
-                }
-            }
-            FontAtlas atlas = new FontAtlas(this);
-            Optional<FontVertexInfos> optional = atlas.putBitmap(font, codepoint, scale, width, height, left, top,
-                    convertL, convertA, ascent + bottom);
-            if (optional.isPresent()) {
-                atlases.add(atlas);
-                chars.put(codepoint, atlas);
-                return optional.get();
-            }
-        }
-        throw new IllegalArgumentException("Can't generate the font bitmap - too large");
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.font;
+
+import com.github.isam.render.texture.Image;
+import com.github.isam.render.texture.TextureArray;
+import com.github.isam.render.texture.TextureUtil;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.ints.AbstractInt2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTruetype;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+
+import javax.annotation.Nonnull;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+public class VertexFont implements FontMetrics {
+
+    // Pixels of distance field around the glyphs in SDF mode
+    public static final int SDF_PADDING = 4;
+    public static final byte SDF_ON_EDGE = (byte) 128;
+    public static final float SDF_PIXEL_DISTANCE_SCALE = 128f / SDF_PADDING;
+    // Repack the atlases when the live glyphs fill them at most this much
+    public static final float COMPACT_OCCUPANCY = 0.5f;
+    // Advances of the codepoints below it are computed when the font is made
+    private static final int CACHED_ADVANCES = 256;
+
+    private final int size;
+    private final STBTTFontinfo font;
+    private final List<FontAtlas> atlases = Lists.newArrayList();
+    // The glyphs of all the atlases, a lookup is a single probe
+    private final CodepointMap<FontVertexInfos> chars = new CodepointMap<>();
+    // Every atlas is a layer, text in the font is drawn with one texture
+    private final TextureArray texture;
+    private final float ascent;
+    private final float descent;
+    private final float lineGap;
+    private final float spaceLength;
+    private final float scale;
+    private final float[] advances = new float[CACHED_ADVANCES];
+    // The atlases store signed distance fields, which can be drawn at any size
+    private final boolean sdf;
+    // SHA-256 of the font file
+    private final String hash;
+    // Advanced by every glyph sweep, the glyphs are marked with it when they are used
+    private long clock;
+    // Changed when glyphs are evicted or moved, layouts of an older generation must be made again
+    private volatile int generation;
+    // Rasterize the glyphs in the glyph service, a placeholder is shown until the glyph is ready
+    private boolean async = true;
+    public VertexFont(InputStream fontFile, int size) throws IOException {
+        this(fontFile, size, false);
+    }
+
+    // In SDF mode, the size is the size of the glyphs in the atlases, text of any size can be drawn from them
+    public VertexFont(InputStream fontFile, int size, boolean sdf) throws IOException {
+        this.size = size;
+        this.sdf = sdf;
+        font = STBTTFontinfo.create();
+        ByteBuffer buffer = TextureUtil.readResource(fontFile);
+        int length = buffer.position();
+        buffer.rewind();
+        hash = Hashing.sha256().hashBytes(MemoryUtil.memSlice(buffer, 0, length)).toString();
+        if (!STBTruetype.stbtt_InitFont(font, buffer))
+            throw new IOException("Can't initialize font");
+        scale = STBTruetype.stbtt_ScaleForPixelHeight(font, size);
+        texture = new TextureArray(Image.Format.LUMINANCE, FontAtlas.SIZE, FontAtlas.SIZE)
+                .setLinear(sdf || size <= 32).setClamp(true);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer ascentBuf = stack.mallocInt(1);
+            IntBuffer descentBuf = stack.mallocInt(1);
+            IntBuffer lineGapBuf = stack.mallocInt(1);
+            STBTruetype.stbtt_GetFontVMetrics(font, ascentBuf, descentBuf, lineGapBuf);
+            ascent = ascentBuf.get(0) * scale;
+            descent = descentBuf.get(0) * scale;
+            lineGap = lineGapBuf.get(0) * scale;
+            IntBuffer advanceWidthBuf = stack.mallocInt(1);
+            IntBuffer leftSideBearingBuf = stack.mallocInt(1);
+            STBTruetype.stbtt_GetCodepointHMetrics(font, ' ', advanceWidthBuf, leftSideBearingBuf);
+            spaceLength = advanceWidthBuf.get(0) * scale;
+        }
+        for (int codepoint = 0; codepoint < CACHED_ADVANCES; codepoint++)
+            advances[codepoint] = computeAdvance(codepoint);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isSDF() {
+        return sdf;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    List<FontAtlas> getAtlases() {
+        return atlases;
+    }
+
+    // Add an atlas restored from the cache with its glyphs
+    void addAtlas(FontAtlas atlas) {
+        registerAtlas(atlas);
+        atlas.getChars().forEach(chars::put);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public VertexFont setAsync(boolean async) {
+        this.async = async;
+        return this;
+    }
+
+    public float getAscent() {
+        return ascent;
+    }
+
+    public float getDescent() {
+        return descent;
+    }
+
+    public float getLineGap() {
+        return lineGap;
+    }
+
+    public float getSpaceLength() {
+        return spaceLength;
+    }
+
+    // Advance of the codepoint in pixels at the font size without making its glyph, can be called on any thread
+    @Override
+    public float getAdvance(int codepoint) {
+        if (codepoint == ' ')
+            return spaceLength;
+        if (codepoint == '\t')
+            return spaceLength * 4;
+        if (codepoint >= 0 && codepoint < CACHED_ADVANCES)
+            return advances[codepoint];
+        return computeAdvance(codepoint);
+    }
+
+    private float computeAdvance(int codepoint) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer advanceWidthBuf = stack.mallocInt(1);
+            IntBuffer leftSideBearingBuf = stack.mallocInt(1);
+            STBTruetype.stbtt_GetCodepointHMetrics(font, codepoint, advanceWidthBuf, leftSideBearingBuf);
+            return advanceWidthBuf.get(0) * scale;
+        }
+    }
+
+    // Kerning between two codepoints in pixels at the font size, added to the advance of the left one
+    @Override
+    public float getKerning(int left, int right) {
+        return STBTruetype.stbtt_GetCodepointKernAdvance(font, left, right) * scale;
+    }
+
+    @Override
+    public boolean hasGlyph(int codepoint) {
+        return STBTruetype.stbtt_FindGlyphIndex(font, codepoint) != 0;
+    }
+
+    @Nonnull
+    public FontVertexInfos getCodepointInfo(int codepoint) {
+        FontVertexInfos cached = chars.get(codepoint);
+        if (cached != null) {
+            cached.lastUsed = clock;
+            return cached;
+        }
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer leftBuf = stack.mallocInt(1);
+            IntBuffer bottomBuf = stack.mallocInt(1);
+            IntBuffer rightBuf = stack.mallocInt(1);
+            IntBuffer topBuf = stack.mallocInt(1);
+            STBTruetype.stbtt_GetCodepointBitmapBox(font, codepoint, scale, scale, leftBuf, bottomBuf, rightBuf,
+                    topBuf);
+            IntBuffer advanceWidthBuf = stack.mallocInt(1);
+            IntBuffer leftSideBearingBuf = stack.mallocInt(1);
+            STBTruetype.stbtt_GetCodepointHMetrics(font, codepoint, advanceWidthBuf, leftSideBearingBuf);
+            int left = leftBuf.get(0);
+            int bottom = bottomBuf.get(0);
+            int right = rightBuf.get(0);
+            int top = topBuf.get(0);
+            int width = right - left;
+            int height = top - bottom;
+            int advanceWidth = advanceWidthBuf.get(0);
+            int leftSideBearing = leftSideBearingBuf.get(0);
+            float convertL = leftSideBearing * scale;
+            float convertA = advanceWidth * scale;
+            if (width == 0 || height == 0)
+                throw new IllegalArgumentException("Can't generate the font bitmap - unrecorded character");
+            if (sdf) {
+                // The distance field extends the bitmap box by the padding on every side
+                width += SDF_PADDING * 2;
+                height += SDF_PADDING * 2;
+                convertL -= SDF_PADDING;
+                bottom -= SDF_PADDING;
+            }
+            for (FontAtlas atlas : atlases) {
+                Optional<FontVertexInfos> optional = atlas.reserve(codepoint, width, height, convertL, convertA,
+                        ascent + bottom);
+                if (optional.isPresent()) {
+                    chars.put(codepoint, optional.get());
+                    return rasterize(atlas, codepoint, optional.get());
+                }
+            }
+            FontAtlas atlas = new FontAtlas(this);
+            Optional<FontVertexInfos> optional = atlas.reserve(codepoint, width, height, convertL, convertA,
+                    ascent + bottom);
+            if (optional.isPresent()) {
+                registerAtlas(atlas);
+                chars.put(codepoint, optional.get());
+                return rasterize(atlas, codepoint, optional.get());
+            }
+        }
+        throw new IllegalArgumentException("Can't generate the font bitmap - too large");
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Evict the glyphs not used in the last sweeps, and repack the live glyphs into fewer atlases when they fill the
+     * atlases at most {@link #COMPACT_OCCUPANCY}, or when evictions leave an atlas that full split into many free
+     * rectangles. Layouts using the font must mark their glyphs with
+     * {@link TextLayout#touch(long)} once per sweep, and are made again when the generation changes. Must be called on
+     * the render thread.
+     *
+     * @return the count of evicted glyphs
+     */
+    public int collectGlyphs(int idleSweeps) {
+        clock++;
+        IntArrayList idle = new IntArrayList();
+        // Glyphs being rasterized are kept, the workers still write into their space
+        chars.forEach((codepoint, info) -> {
+            if (info.ready && info.lastUsed < clock - idleSweeps)
+                idle.add(codepoint);
+        });
+        for (int i = 0; i < idle.size(); i++) {
+            int codepoint = idle.getInt(i);
+            chars.remove(codepoint).atlas.evict(codepoint);
+        }
+        long usedArea = 0;
+        for (FontAtlas atlas : atlases)
+            usedArea += atlas.getPacker().getUsedArea();
+        long atlasArea = (long) FontAtlas.SIZE * FontAtlas.SIZE;
+        boolean fragmented = false;
+        if (!idle.isEmpty())
+            for (FontAtlas atlas : atlases) {
+                AtlasPacker packer = atlas.getPacker();
+                // Packing alone leaves about one free rectangle per glyph
+                if (packer.getOccupancy() <= COMPACT_OCCUPANCY && packer.getFreeRects() > packer.getPacked() * 2 + 1)
+                    fragmented = true;
+            }
+        boolean compact = (fragmented || atlases.size() > 1 &&
+                usedArea <= (atlases.size() - 1) * atlasArea * COMPACT_OCCUPANCY) && GlyphService.getPending() == 0;
+        if (compact)
+            compact();
+        if (compact || !idle.isEmpty())
+            generation++;
+        return idle.size();
+    }
+
+    private void compact() {
+        List<Int2ObjectMap.Entry<FontVertexInfos>> glyphs = new ArrayList<>(chars.size());
+        chars.forEach((codepoint, info) -> glyphs.add(new AbstractInt2ObjectMap.BasicEntry<>(codepoint, info)));
+        // Taller glyphs first pack better
+        glyphs.sort(Comparator.comparingDouble(entry -> entry.getValue().minV - entry.getValue().maxV));
+        List<FontAtlas> old = new ArrayList<>(atlases);
+        atlases.clear();
+        texture.clearLayers();
+        for (Int2ObjectMap.Entry<FontVertexInfos> entry : glyphs) {
+            boolean moved = false;
+            for (FontAtlas atlas : atlases)
+                if (moved = atlas.moveIn(entry.getIntKey(), entry.getValue()))
+                    break;
+            if (!moved) {
+                FontAtlas atlas = new FontAtlas(this);
+                registerAtlas(atlas);
+                atlas.moveIn(entry.getIntKey(), entry.getValue());
+            }
+        }
+        for (FontAtlas atlas : old)
+            atlas.getImage().close();
+    }
+
+    private void registerAtlas(FontAtlas atlas) {
+        atlas.setLayer(texture.addLayer(atlas.getImage()));
+        atlases.add(atlas);
+    }
+
+    // Upload the changed glyphs of all the atlases, must be called on the render thread
+    public TextureArray getTexture() {
+        for (FontAtlas atlas : atlases)
+            atlas.refresh(texture);
+        return texture;
+    }
+
+    private FontVertexInfos rasterize(FontAtlas atlas, int codepoint, FontVertexInfos info) {
+        info.lastUsed = clock;
+        if (async)
+            GlyphService.rasterize(atlas, font, codepoint, scale, info);
+        else
+            atlas.rasterize(font, codepoint, scale, info);
+        return info;
+    }
+}
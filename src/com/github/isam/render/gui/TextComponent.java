@@ -1,149 +1,267 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package com.github.isam.render.gui;
-
-import com.github.isam.phys.AABB;
-import com.github.isam.render.Component;
-import com.github.isam.render.Renderer;
-import com.github.isam.render.font.FontVertexInfos;
-import com.github.isam.render.font.VertexFont;
-import com.github.isam.render.shader.Shaders;
-import com.github.isam.render.texture.StaticTexture;
-import com.github.isam.render.vertex.ElementBuffer;
-import com.github.isam.render.vertex.VertexArray;
-import com.github.isam.render.vertex.VertexBuffer;
-import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL30;
-
-import java.util.ArrayList;
-import java.util.List;
-
-public abstract class TextComponent extends Component {
-
-    protected String text;
-    protected final VertexFont font;
-    protected final List<VertexArray> arrayRender = new ArrayList<>();
-    protected final List<StaticTexture> fonts = new ArrayList<>();
-    protected boolean dirty;
-    protected int color;
-
-    /* Color: XXRRGGBB */
-    public TextComponent(Renderer renderer, AABB position, VertexFont font, String text, int color) {
-        super(renderer, position);
-        this.font = font;
-        this.color = color;
-        setText(text);
-    }
-
-    public TextComponent(Renderer renderer, AABB position, VertexFont font, String text) {
-        this(renderer, position, font, text, 0x00FFFFFF);
-    }
-
-    public TextComponent(Renderer renderer, AABB position, VertexFont font) {
-        this(renderer, position, font, "");
-    }
-
-    public String getText() {
-        return text;
-    }
-
-    public TextComponent setText(String text) {
-        this.text = text;
-        dirty = true;
-        return this;
-    }
-
-    public int getColor() {
-        return color;
-    }
-
-    public TextComponent setColor(int color) {
-        this.color = color & 0x00FFFFFF;
-        dirty = true;
-        return this;
-    }
-
-    @Override
-    public void render() {
-        if (dirty) {
-            dirty = false;
-            prepareText();
-        }
-        GL11.glEnable(GL11.GL_ALPHA_TEST);
-        GL11.glAlphaFunc(GL11.GL_GREATER, 0.5f);
-        for (int i = 0; i < arrayRender.size(); i++) {
-            fonts.get(i).activeAndBind(0);
-            arrayRender.get(i).render();
-        }
-        GL11.glDisable(GL11.GL_ALPHA_TEST);
-    }
-
-    @Override
-    public void onResize(int sWidth, int sHeight, int reWidth, int reHeight) {
-        dirty = true;
-    }
-
-    protected void prepareText() {
-        arrayRender.forEach(VertexArray::destroy);
-        arrayRender.clear();
-        fonts.clear();
-        int nowPosition = (int) position.minX;
-        int topLine = (int) position.minY;
-        for (int now = 0; now < text.codePointCount(0, text.length()); now++) {
-            int codepoint = text.codePointAt(now);
-            if (codepoint == ' ') {
-                nowPosition += font.getSpaceLength();
-                continue;
-            }
-            if (codepoint == '\t') {
-                nowPosition += font.getSpaceLength() * 4;
-                continue;
-            }
-            FontVertexInfos info = font.getCodepointInfo(codepoint);
-            fonts.add(info.atlas.getTexture());
-            int width = (int) info.advanceWidth;
-            int left = (int) info.leftSide;
-            int ascent = (int) info.topSide;
-            int height = (int) ((info.maxV - info.minV) * 1024);
-            float x1 = renderer.getXPosition(nowPosition + left);
-            float y1 = renderer.getYPosition(topLine + ascent + height);
-            float x2 = renderer.getXPosition(nowPosition += width);
-            float y2 = renderer.getYPosition(topLine + ascent);
-            arrayRender.add(prepareFontRender(x1, y1, x2, y2, info.minU, info.minV, info.maxU, info.maxV));
-        }
-    }
-
-    public VertexArray prepareFontRender(float x1, float y1, float x2, float y2, float tx1, float ty1, float tx2,
-                                         float ty2) {
-        float r = (color >> 16) / 255f;
-        float g = ((color >> 8) & 0xFF) / 255f;
-        float b = (color & 0xFF) / 255f;
-        VertexBuffer buffer = new VertexBuffer(4, GL30.GL_STATIC_DRAW);
-        buffer.pos(x1, y1, 0).color(r, g, b).uv(tx1, ty2).endVertex();
-        buffer.pos(x2, y1, 0).color(r, g, b).uv(tx2, ty2).endVertex();
-        buffer.pos(x2, y2, 0).color(r, g, b).uv(tx2, ty1).endVertex();
-        buffer.pos(x1, y2, 0).color(r, g, b).uv(tx1, ty1).endVertex();
-        ElementBuffer ebo = new ElementBuffer(2);
-        ebo.putTriangle(0, 1, 3);
-        ebo.putTriangle(1, 2, 3);
-        VertexArray array = new VertexArray(Shaders.FONT);
-        array.bindVBO(buffer);
-        array.bindEBO(ebo);
-        array.upload();
-        return array;
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.gui;
+
+import com.github.isam.phys.AABB;
+import com.github.isam.render.Component;
+import com.github.isam.render.Renderer;
+import com.github.isam.render.font.TextLayout;
+import com.github.isam.render.font.TextLayoutCache;
+import com.github.isam.render.font.VertexFont;
+import com.github.isam.render.shader.Shaders;
+import com.github.isam.render.vertex.ArenaVertexBuffer;
+import com.github.isam.render.vertex.MeshBuilder;
+import com.github.isam.render.vertex.VertexArray;
+import com.github.isam.render.vertex.VertexFormat;
+
+import javax.annotation.Nullable;
+
+public abstract class TextComponent extends Component {
+
+    protected String text;
+    protected final VertexFont font;
+    // All the glyphs in one mesh, the atlases are layers of the font texture
+    @Nullable
+    protected VertexArray mesh;
+    // One QUAD_INSTANCE per glyph instead of 4 vertices, drawn alone instead of merged with other texts
+    protected boolean instanced;
+    // Vertices already in the GL buffer
+    protected int uploaded;
+    protected boolean dirty;
+    // The text changed from the char index, the meshes before it are kept
+    protected int editedFrom = Integer.MAX_VALUE;
+    protected int color;
+    // Pixel size of the text, the glyphs of the font are scaled from the size of the font
+    protected float textSize;
+    protected TextLayout layout;
+    // Layouts from the cache are shared and must be copied before laying out again
+    protected boolean ownsLayout;
+    // The glyph sweep of the font in which the glyphs of the layout were marked in use
+    protected long touchedClock = -1;
+
+    /* Color: XXRRGGBB */
+    public TextComponent(Renderer renderer, AABB position, VertexFont font, String text, int color) {
+        super(renderer, position);
+        this.font = font;
+        this.color = color;
+        textSize = font.getSize();
+        this.text = text;
+        dirty = true;
+    }
+
+    public TextComponent(Renderer renderer, AABB position, VertexFont font, String text) {
+        this(renderer, position, font, text, 0x00FFFFFF);
+    }
+
+    public TextComponent(Renderer renderer, AABB position, VertexFont font) {
+        this(renderer, position, font, "");
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public TextComponent setText(String text) {
+        if (text.equals(this.text))
+            return this;
+        int prefix = 0;
+        int length = Math.min(text.length(), this.text.length());
+        while (prefix < length && text.charAt(prefix) == this.text.charAt(prefix))
+            prefix++;
+        this.text = text;
+        editedFrom = Math.min(editedFrom, prefix);
+        markChanged();
+        return this;
+    }
+
+    // Only the appended glyphs are laid out and uploaded, for consoles and logs growing every frame
+    public TextComponent appendText(String append) {
+        if (append.isEmpty())
+            return this;
+        editedFrom = Math.min(editedFrom, text.length());
+        text += append;
+        markChanged();
+        return this;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public TextComponent setColor(int color) {
+        this.color = color & 0x00FFFFFF;
+        dirty = true;
+        markChanged();
+        return this;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    // Sizes other than the font size are sharp only if the font is in SDF mode
+    public TextComponent setTextSize(float textSize) {
+        this.textSize = textSize;
+        dirty = true;
+        markChanged();
+        return this;
+    }
+
+    public boolean isInstanced() {
+        return instanced;
+    }
+
+    // Instances are a quarter of the vertex data, for long texts updated often
+    public TextComponent setInstanced(boolean instanced) {
+        if (instanced == this.instanced)
+            return this;
+        this.instanced = instanced;
+        // The mesh is built again in the other format
+        if (mesh != null) {
+            mesh.destroy();
+            mesh = null;
+        }
+        dirty = true;
+        markChanged();
+        return this;
+    }
+
+    @Override
+    public void render() {
+        // Evicted or moved glyphs are resolved again
+        if (layout != null && layout.getGeneration() != font.getGeneration())
+            dirty = true;
+        if (dirty) {
+            dirty = false;
+            editedFrom = Integer.MAX_VALUE;
+            prepareText();
+        } else if (editedFrom != Integer.MAX_VALUE) {
+            int from = editedFrom;
+            editedFrom = Integer.MAX_VALUE;
+            updateText(from);
+        }
+        if (layout != null && touchedClock != font.getClock()) {
+            touchedClock = font.getClock();
+            layout.touch(touchedClock);
+        }
+        if (mesh != null)
+            renderer.submit(mesh, font.getTexture(), zIndex, 0);
+        renderer.watch(this);
+    }
+
+    @Override
+    public boolean replay() {
+        // Relayout after a glyph sweep, and mark the glyphs in use
+        if (layout != null && (layout.getGeneration() != font.getGeneration() || touchedClock != font.getClock()))
+            return false;
+        // Placeholders finished after recording are uploaded
+        font.getTexture();
+        return true;
+    }
+
+    @Override
+    public void onResize(int sWidth, int sHeight, int reWidth, int reHeight) {
+        // The glyphs are in pixels, the projection of the renderer follows the window
+    }
+
+    protected void prepareText() {
+        layout = TextLayoutCache.shared().get(font, text, textSize);
+        ownsLayout = text.length() > TextLayoutCache.MAX_CACHED_LENGTH;
+        // Refill the mesh of the last layout, the arena slice is kept if the text doesn't grow
+        if (mesh != null)
+            mesh.getVBO().clear();
+        uploaded = 0;
+        putGlyphs(0);
+        uploadMesh();
+    }
+
+    // Lay out the text from the edited char index, and rewrite only the glyphs after it
+    protected void updateText(int from) {
+        if (layout == null || text.length() <= TextLayoutCache.MAX_CACHED_LENGTH) {
+            // Short texts are laid out through the cache
+            prepareText();
+            return;
+        }
+        if (!ownsLayout) {
+            layout = layout.copy();
+            ownsLayout = true;
+        }
+        int firstGlyph = layout.relayout(font, text, textSize, from);
+        if (mesh != null) {
+            int vertexes = firstGlyph * (instanced ? 1 : 4);
+            mesh.getVBO().truncate(vertexes);
+            uploaded = Math.min(uploaded, vertexes);
+        }
+        putGlyphs(firstGlyph);
+        uploadMesh();
+    }
+
+    protected void putGlyphs(int from) {
+        float r = (color >> 16) / 255f;
+        float g = ((color >> 8) & 0xFF) / 255f;
+        float b = (color & 0xFF) / 255f;
+        float left = (float) position.minX;
+        float top = (float) position.minY;
+        if (instanced) {
+            if (mesh == null && from < layout.getGlyphs()) {
+                mesh = new VertexArray(font.isSDF() ? Shaders.FONT_SDF_INSTANCED : Shaders.FONT_INSTANCED);
+                mesh.bindInstanceVBO(new ArenaVertexBuffer(layout.getGlyphs(), VertexFormat.QUAD_INSTANCE));
+            }
+            if (mesh != null)
+                layout.putInstances(mesh.getVBO(), from, left, top, r, g, b);
+            return;
+        }
+        if (mesh == null && from < layout.getGlyphs()) {
+            mesh = new VertexArray(font.isSDF() ? Shaders.FONT_SDF : Shaders.FONT);
+            mesh.bindVBO(new ArenaVertexBuffer(layout.getGlyphs() * 4, VertexFormat.POSITION_COLOR_TEX_LAYER_PACKED));
+            mesh.bindQuadIndices();
+        }
+        for (int i = from; i < layout.getGlyphs(); i++) {
+            // Whole pixels keep the glyphs sharp
+            float x1 = Math.round(left + layout.getQuad(i, 0));
+            float y1 = Math.round(top + layout.getQuad(i, 3));
+            float x2 = Math.round(left + layout.getQuad(i, 2));
+            float y2 = Math.round(top + layout.getQuad(i, 1));
+            putGlyph(mesh.getVBO(), x1, y1, x2, y2, layout.getQuad(i, 4), layout.getQuad(i, 5),
+                    layout.getQuad(i, 6), layout.getQuad(i, 7), layout.getAtlas(i).getLayer(), r, g, b);
+        }
+    }
+
+    protected void uploadMesh() {
+        if (mesh == null)
+            return;
+        int vertexes = mesh.getVBO().getVertexes();
+        if (vertexes == 0) {
+            mesh.destroy();
+            mesh = null;
+            return;
+        }
+        if (uploaded == 0)
+            mesh.upload();
+        else if (uploaded < vertexes)
+            mesh.getVBO().uploadFrom(uploaded);
+        uploaded = vertexes;
+    }
+
+    protected void putGlyph(MeshBuilder builder, float x1, float y1, float x2, float y2, float tx1, float ty1,
+                            float tx2, float ty2, int layer, float r, float g, float b) {
+        builder.pos(x1, y1, 0).color(r, g, b).uv(tx1, ty2, layer).endVertex();
+        builder.pos(x2, y1, 0).color(r, g, b).uv(tx2, ty2, layer).endVertex();
+        builder.pos(x2, y2, 0).color(r, g, b).uv(tx2, ty1, layer).endVertex();
+        builder.pos(x1, y2, 0).color(r, g, b).uv(tx1, ty1, layer).endVertex();
+    }
+}
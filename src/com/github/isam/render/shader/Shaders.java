@@ -1,41 +1,90 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.github.isam.render.shader;
-
-import java.io.IOException;
-
-public class Shaders {
-
-    public static final ShaderProgram SIMPLE;
-    public static final ShaderProgram FONT;
-
-    static {
-        try {
-            SIMPLE = ShaderProgram.createFromJAR("/assets/shader/simple.vsh", "/assets/shader/simple.fsh",
-                    new Uniform("sampler", Uniform.Type.INT_1));
-        } catch (IOException e) {
-            throw new RuntimeException("Can't create shader 'simple'", e);
-        }
-        SIMPLE.getUniform("sampler").setInt(0);
-        try {
-            FONT = ShaderProgram.createFromJAR("/assets/shader/simple.vsh", "/assets/shader/font.fsh",
-                    new Uniform("sampler", Uniform.Type.INT_1));
-        } catch (IOException e) {
-            throw new RuntimeException("Can't create shader 'font'", e);
-        }
-        FONT.getUniform("sampler").setInt(0);
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.isam.render.shader;
+
+import java.io.IOException;
+
+public class Shaders {
+
+    public static final ShaderProgram SIMPLE;
+    public static final ShaderProgram FONT;
+    public static final ShaderProgram FONT_SDF;
+    public static final ShaderProgram FONT_INSTANCED;
+    public static final ShaderProgram FONT_SDF_INSTANCED;
+    // Shaders with the projection uniform
+    private static final ShaderProgram[] PROJECTED;
+
+    static {
+        try {
+            SIMPLE = ShaderProgram.createFromJAR("/assets/shader/simple.vsh", "/assets/shader/simple.fsh",
+                    new Uniform("sampler", Uniform.Type.INT_1),
+                    new Uniform("projection", Uniform.Type.MATRIX_4));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create shader 'simple'", e);
+        }
+        SIMPLE.getUniform("sampler").setInt(0);
+        try {
+            FONT = ShaderProgram.createFromJAR("/assets/shader/font.vsh", "/assets/shader/font.fsh",
+                    new Uniform("sampler", Uniform.Type.INT_1),
+                    new Uniform("projection", Uniform.Type.MATRIX_4));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create shader 'font'", e);
+        }
+        FONT.getUniform("sampler").setInt(0);
+        try {
+            FONT_SDF = ShaderProgram.createFromJAR("/assets/shader/font.vsh", "/assets/shader/font_sdf.fsh",
+                    new Uniform("sampler", Uniform.Type.INT_1),
+                    new Uniform("projection", Uniform.Type.MATRIX_4));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create shader 'font_sdf'", e);
+        }
+        FONT_SDF.getUniform("sampler").setInt(0);
+        try {
+            FONT_INSTANCED = ShaderProgram.createFromJAR("/assets/shader/font_instanced.vsh",
+                    "/assets/shader/font.fsh", new Uniform("sampler", Uniform.Type.INT_1),
+                    new Uniform("projection", Uniform.Type.MATRIX_4));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create shader 'font_instanced'", e);
+        }
+        FONT_INSTANCED.getUniform("sampler").setInt(0);
+        try {
+            FONT_SDF_INSTANCED = ShaderProgram.createFromJAR("/assets/shader/font_instanced.vsh",
+                    "/assets/shader/font_sdf.fsh", new Uniform("sampler", Uniform.Type.INT_1),
+                    new Uniform("projection", Uniform.Type.MATRIX_4));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create shader 'font_sdf_instanced'", e);
+        }
+        FONT_SDF_INSTANCED.getUniform("sampler").setInt(0);
+        PROJECTED = new ShaderProgram[]{SIMPLE, FONT, FONT_SDF, FONT_INSTANCED, FONT_SDF_INSTANCED};
+        // Identity until a renderer sets the window size
+        for (ShaderProgram shader : PROJECTED)
+            shader.getUniform("projection").setFloat(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1);
+    }
+
+    // Set the orthographic projection of the shaders, vertex positions are in pixels of a window in the size. The
+    // matrices are uploaded when the shaders are used next time.
+    public static void setProjection(float width, float height) {
+        // Column major: x' = 2x / w - 1, y' = 1 - 2y / h
+        float[] matrix = {
+                2 / width, 0, 0, 0,
+                0, -2 / height, 0, 0,
+                0, 0, -1, 0,
+                -1, 1, 0, 1
+        };
+        for (ShaderProgram shader : PROJECTED)
+            shader.getUniform("projection").setFloat(matrix);
+    }
+}
@@ -1,43 +1,43 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package com.github.isam.render.texture;
-
-import org.lwjgl.opengl.GL30;
-
-public interface Texture {
-
-    void bind();
-
-    void unbind();
-
-    default void activeAndBind(int unit) {
-        GL30.glActiveTexture(GL30.GL_TEXTURE0 + unit);
-        bind();
-    }
-
-    boolean isLinear();
-
-    Texture setLinear(boolean linear);
-
-    boolean isClamp();
-
-    Texture setClamp(boolean clamp);
-
-    Texture update();
-
-    Texture update(int x, int y, int sizeX, int sizeY);
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.texture;
+
+import org.lwjgl.opengl.GL30;
+
+public interface Texture {
+
+    void bind();
+
+    void unbind();
+
+    default void activeAndBind(int unit) {
+        GL30.glActiveTexture(GL30.GL_TEXTURE0 + unit);
+        bind();
+    }
+
+    boolean isLinear();
+
+    Texture setLinear(boolean linear);
+
+    boolean isClamp();
+
+    Texture setClamp(boolean clamp);
+
+    Texture update();
+
+    Texture update(int x, int y, int sizeX, int sizeY);
+}
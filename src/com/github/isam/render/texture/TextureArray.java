@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.texture;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL30.*;
+
+/**
+ * A 2D texture array with an image for every layer, all in the same size and format. Layers can be added on any
+ * thread; the GL storage is made on the render thread when the texture is updated, and grows by doubling with all the
+ * layers uploaded again.
+ */
+public class TextureArray implements Texture {
+
+    private final int width;
+    private final int height;
+    private final Image.Format format;
+    private final List<Image> layers = new ArrayList<>();
+    private int id;
+    // Layers of the GL storage
+    private int capacity;
+    private boolean linear;
+    private boolean clamp;
+
+    public TextureArray(Image.Format format, int width, int height) {
+        this.format = format;
+        this.width = width;
+        this.height = height;
+    }
+
+    public synchronized int addLayer(Image image) {
+        Preconditions.checkArgument(image.getWidth() == width && image.getHeight() == height,
+                "The layer must be %sx%s", width, height);
+        Preconditions.checkArgument(image.format() == format, "The layer must be in format %s", format);
+        layers.add(image);
+        return layers.size() - 1;
+    }
+
+    // Drop all the layers, the storage is made again with the next layers
+    public synchronized void clearLayers() {
+        layers.clear();
+        capacity = 0;
+    }
+
+    public synchronized int getLayers() {
+        return layers.size();
+    }
+
+    // Returns true if the storage was made again, the layers are uploaded in full then
+    private synchronized boolean ensureStorage() {
+        if (capacity >= layers.size())
+            return false;
+        if (id == 0)
+            id = TextureUtil.generateTextureId();
+        capacity = Math.max(Math.max(1, capacity * 2), layers.size());
+        glBindTexture(GL_TEXTURE_2D_ARRAY, id);
+        Image.InternalGlFormat internal = format.components == 1 ? Image.InternalGlFormat.LUMINANCE :
+                Image.InternalGlFormat.RGBA;
+        glTexImage3D(GL_TEXTURE_2D_ARRAY, 0, internal.glFormat(), width, height, capacity, 0, format.glFormat(),
+                GL_UNSIGNED_BYTE, 0);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAX_LEVEL, 0);
+        applyParameters();
+        for (int layer = 0; layer < layers.size(); layer++)
+            layers.get(layer).uploadLayer(layer, 0, 0, width, height);
+        return true;
+    }
+
+    private void applyParameters() {
+        int filter = linear ? GL_LINEAR : GL_NEAREST;
+        int wrap = clamp ? GL_CLAMP_TO_EDGE : GL_REPEAT;
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, filter);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, filter);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, wrap);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, wrap);
+    }
+
+    @Override
+    public void bind() {
+        ensureStorage();
+        glBindTexture(GL_TEXTURE_2D_ARRAY, id);
+    }
+
+    @Override
+    public void unbind() {
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+    }
+
+    @Override
+    public boolean isLinear() {
+        return linear;
+    }
+
+    @Override
+    public TextureArray setLinear(boolean linear) {
+        this.linear = linear;
+        if (id != 0) {
+            glBindTexture(GL_TEXTURE_2D_ARRAY, id);
+            applyParameters();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isClamp() {
+        return clamp;
+    }
+
+    @Override
+    public TextureArray setClamp(boolean clamp) {
+        this.clamp = clamp;
+        if (id != 0) {
+            glBindTexture(GL_TEXTURE_2D_ARRAY, id);
+            applyParameters();
+        }
+        return this;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public TextureArray update() {
+        return update(0, 0, width, height);
+    }
+
+    // Upload the rectangle in all the layers
+    @Override
+    public synchronized TextureArray update(int x, int y, int sizeX, int sizeY) {
+        if (ensureStorage())
+            return this;
+        glBindTexture(GL_TEXTURE_2D_ARRAY, id);
+        for (int layer = 0; layer < layers.size(); layer++)
+            layers.get(layer).uploadLayer(layer, x, y, sizeX, sizeY);
+        return this;
+    }
+
+    public synchronized TextureArray update(int layer, int x, int y, int sizeX, int sizeY) {
+        Preconditions.checkElementIndex(layer, layers.size(), "layer");
+        if (ensureStorage())
+            return this;
+        glBindTexture(GL_TEXTURE_2D_ARRAY, id);
+        layers.get(layer).uploadLayer(layer, x, y, sizeX, sizeY);
+        return this;
+    }
+
+    public void destroy() {
+        if (id != 0)
+            TextureUtil.releaseTextureId(id);
+        id = 0;
+        capacity = 0;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * A vertex buffer stored in a slice of a {@link BufferArena}. The slice starts at a whole vertex, so the vertex array
+ * draws it with the slice start as the base vertex. The slice is replaced when the vertices outgrow it.
+ */
+public class ArenaVertexBuffer extends VertexBuffer {
+
+    private final BufferArena arena;
+    private BufferArena.Slice slice;
+
+    public ArenaVertexBuffer(int vertexes, VertexFormat format) {
+        this(vertexes, format, BufferArena.shared());
+    }
+
+    public ArenaVertexBuffer(int vertexes, VertexFormat format, BufferArena arena) {
+        super(GL_STATIC_DRAW, format);
+        this.arena = arena;
+        vertices = MemoryUtil.memAlloc(Math.max(vertexes, 1) * size);
+    }
+
+    @Override
+    protected void uploadData(ByteBuffer data) {
+        int length = Math.max(data.remaining(), size);
+        if (slice == null || slice.getLength() < length) {
+            if (slice != null)
+                arena.free(slice);
+            // Take the capacity of the vertices, growing text doesn't need a new slice every time
+            slice = arena.allocate(Math.max(length, vertices.capacity() / size * size), size);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, slice.getBuffer());
+        glBufferSubData(GL_ARRAY_BUFFER, slice.getOffset(), data);
+    }
+
+    @Override
+    protected void uploadRange(int offset, ByteBuffer data) {
+        glBindBuffer(GL_ARRAY_BUFFER, slice.getBuffer());
+        glBufferSubData(GL_ARRAY_BUFFER, slice.getOffset() + offset, data);
+    }
+
+    @Override
+    protected boolean hasStorage(int bytes) {
+        return slice != null && bytes <= slice.getLength();
+    }
+
+    // The arena may move the slice into another buffer when compacting
+    @Override
+    public int getId() {
+        return slice == null ? 0 : slice.getBuffer();
+    }
+
+    @Override
+    public int getStorageGeneration() {
+        return slice == null ? 0 : slice.getGeneration();
+    }
+
+    @Override
+    public int getBaseVertex() {
+        return slice == null ? 0 : slice.getOffset() / size;
+    }
+
+    public BufferArena.Slice getSlice() {
+        return slice;
+    }
+
+    @Override
+    public void destroy() {
+        if (slice != null)
+            arena.free(slice);
+        slice = null;
+        free();
+    }
+}
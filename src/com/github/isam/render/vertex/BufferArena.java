@@ -0,0 +1,257 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * Sub-allocates slices of a few large GL buffers, so small meshes don't need a buffer object each. Freed ranges are
+ * merged with their neighbours and reused. When no block has a free range large enough, blocks with enough free
+ * bytes in total are compacted before a new block is created.
+ * <p>
+ * Compacting moves the slices, and may replace the GL buffer of the block. Always read the buffer and the offset
+ * from the slice when drawing.
+ */
+public class BufferArena {
+
+    public static final int DEFAULT_BLOCK_SIZE = 4 << 20;
+
+    private static BufferArena shared;
+
+    private final int blockSize;
+    private final int usage;
+    private final List<Block> blocks = new ArrayList<>();
+
+    public BufferArena() {
+        this(DEFAULT_BLOCK_SIZE, GL_STATIC_DRAW);
+    }
+
+    public BufferArena(int blockSize, int usage) {
+        this.blockSize = blockSize;
+        this.usage = usage;
+    }
+
+    // The arena shared by the static UI geometry
+    public static BufferArena shared() {
+        if (shared == null)
+            shared = new BufferArena();
+        return shared;
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    // The offset of the slice is a multiple of the alignment, use the vertex size to draw with base vertex
+    public Slice allocate(int length, int alignment) {
+        Preconditions.checkArgument(length > 0, "Invalid length %s", length);
+        Preconditions.checkArgument(alignment > 0, "Invalid alignment %s", alignment);
+        for (Block block : blocks) {
+            Slice slice = block.allocate(length, alignment);
+            if (slice != null)
+                return slice;
+        }
+        for (Block block : blocks) {
+            if (block.size - block.used < length + alignment)
+                continue;
+            block.compact();
+            Slice slice = block.allocate(length, alignment);
+            if (slice != null)
+                return slice;
+        }
+        Block block = new Block(Math.max(blockSize, length + alignment));
+        blocks.add(block);
+        return block.allocate(length, alignment);
+    }
+
+    public void free(Slice slice) {
+        Preconditions.checkState(slice.block != null, "The slice has been freed");
+        slice.block.free(slice);
+        slice.block = null;
+    }
+
+    // Move the slices of every block to the block start, and release the blocks without slices
+    public void compact() {
+        for (int i = blocks.size() - 1; i >= 0; i--) {
+            Block block = blocks.get(i);
+            if (block.slices.isEmpty() && blocks.size() > 1) {
+                glDeleteBuffers(block.id);
+                blocks.remove(i);
+            } else
+                block.compact();
+        }
+    }
+
+    public int getBlocks() {
+        return blocks.size();
+    }
+
+    public long getUsedBytes() {
+        long used = 0;
+        for (Block block : blocks)
+            used += block.used;
+        return used;
+    }
+
+    public long getTotalBytes() {
+        long total = 0;
+        for (Block block : blocks)
+            total += block.size;
+        return total;
+    }
+
+    public void destroy() {
+        for (Block block : blocks)
+            glDeleteBuffers(block.id);
+        blocks.clear();
+        if (shared == this)
+            shared = null;
+    }
+
+    public static class Slice {
+
+        private final int length;
+        private final int alignment;
+        private Block block;
+        private int offset;
+
+        private Slice(Block block, int offset, int length, int alignment) {
+            this.block = block;
+            this.offset = offset;
+            this.length = length;
+            this.alignment = alignment;
+        }
+
+        public int getBuffer() {
+            Preconditions.checkState(block != null, "The slice has been freed");
+            return block.id;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        // Changed when the slice moves to another GL buffer
+        public int getGeneration() {
+            Preconditions.checkState(block != null, "The slice has been freed");
+            return block.generation;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    private class Block {
+
+        private final int size;
+        // Free ranges: offset -> length
+        private final TreeMap<Integer, Integer> free = new TreeMap<>();
+        private final Set<Slice> slices = new HashSet<>();
+        private int id;
+        private int generation;
+        private int used;
+
+        private Block(int size) {
+            this.size = size;
+            id = glGenBuffers();
+            generation = VertexBuffer.nextStorageGeneration();
+            glBindBuffer(GL_COPY_WRITE_BUFFER, id);
+            glBufferData(GL_COPY_WRITE_BUFFER, size, usage);
+            glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+            free.put(0, size);
+        }
+
+        private Slice allocate(int length, int alignment) {
+            for (Map.Entry<Integer, Integer> range : free.entrySet()) {
+                int start = range.getKey();
+                int end = start + range.getValue();
+                int aligned = align(start, alignment);
+                if (aligned + length > end)
+                    continue;
+                free.remove(start);
+                if (aligned > start)
+                    free.put(start, aligned - start);
+                if (aligned + length < end)
+                    free.put(aligned + length, end - aligned - length);
+                Slice slice = new Slice(this, aligned, length, alignment);
+                slices.add(slice);
+                used += length;
+                return slice;
+            }
+            return null;
+        }
+
+        private void free(Slice slice) {
+            slices.remove(slice);
+            used -= slice.length;
+            int start = slice.offset;
+            int end = start + slice.length;
+            Map.Entry<Integer, Integer> before = free.floorEntry(start);
+            if (before != null && before.getKey() + before.getValue() == start) {
+                start = before.getKey();
+                free.remove(start);
+            }
+            Integer after = free.get(end);
+            if (after != null) {
+                free.remove(end);
+                end += after;
+            }
+            free.put(start, end - start);
+        }
+
+        private void compact() {
+            // Already compact: only one free range at the end
+            if (free.size() == 1 && free.firstKey() + free.firstEntry().getValue() == size && free.firstKey() == used)
+                return;
+            List<Slice> live = new ArrayList<>(slices);
+            live.sort(Comparator.comparingInt(slice -> slice.offset));
+            // Copy through a new buffer, the ranges may overlap in the same buffer
+            int target = glGenBuffers();
+            glBindBuffer(GL_COPY_WRITE_BUFFER, target);
+            glBufferData(GL_COPY_WRITE_BUFFER, size, usage);
+            glBindBuffer(GL_COPY_READ_BUFFER, id);
+            free.clear();
+            int offset = 0;
+            for (Slice slice : live) {
+                int aligned = align(offset, slice.alignment);
+                if (aligned > offset)
+                    free.put(offset, aligned - offset);
+                glCopyBufferSubData(GL_COPY_READ_BUFFER, GL_COPY_WRITE_BUFFER, slice.offset, aligned, slice.length);
+                slice.offset = aligned;
+                offset = aligned + slice.length;
+            }
+            if (offset < size)
+                free.put(offset, size - offset);
+            glBindBuffer(GL_COPY_READ_BUFFER, 0);
+            glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+            glDeleteBuffers(id);
+            id = target;
+            generation = VertexBuffer.nextStorageGeneration();
+        }
+    }
+}
@@ -1,81 +1,96 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.github.isam.render.vertex;
-
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.IntBuffer;
-
-import static org.lwjgl.opengl.GL30.*;
-
-public class ElementBuffer {
-
-    private final int id;
-    private final int mode;
-    private IntBuffer indices;
-    private int triangles = 0;
-
-    public ElementBuffer(int size) {
-        this(size, GL_STATIC_DRAW);
-    }
-
-    public ElementBuffer(int size, int mode) {
-        this.mode = mode;
-        id = glGenBuffers();
-        indices = ByteBuffer.allocateDirect(size * 3 * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
-    }
-
-    private void ensureSize(int add) {
-        if (indices.capacity() < indices.position() + add) {
-            IntBuffer buffer = ByteBuffer.allocateDirect(indices.capacity() * 2).order(ByteOrder.nativeOrder())
-                    .asIntBuffer();
-            int pos = indices.position();
-            indices.position(0);
-            buffer.put(indices);
-            buffer.rewind();
-            indices = buffer;
-            indices.position(pos);
-        }
-    }
-
-    public ElementBuffer putTriangle(int a, int b, int c) {
-        ensureSize(3);
-        triangles++;
-        indices.put(a).put(b).put(c);
-        return this;
-    }
-
-    public int getTriangles() {
-        return triangles;
-    }
-
-    public int getId() {
-        return id;
-    }
-
-    public ElementBuffer upload() {
-        int pos = indices.position();
-        indices.position(0);
-        indices.limit(pos);
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, id);
-        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, mode);
-        return this;
-    }
-
-    public void destroy() {
-        glDeleteBuffers(id);
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.isam.render.vertex;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL30.*;
+
+// The indices are in memory allocated by MemoryUtil, it is freed in destroy()
+
+public class ElementBuffer {
+
+    private final int id;
+    private final int mode;
+    private IntBuffer indices;
+    private int triangles = 0;
+    // Bytes of the storage allocated for the GL buffer
+    private int storage;
+
+    public ElementBuffer(int size) {
+        this(size, GL_STATIC_DRAW);
+    }
+
+    public ElementBuffer(int size, int mode) {
+        this.mode = mode;
+        id = glGenBuffers();
+        indices = MemoryUtil.memAllocInt(Math.max(size, 1) * 3);
+    }
+
+    private void ensureSize(int add) {
+        if (indices.capacity() < indices.position() + add) {
+            int capacity = Math.max(indices.capacity() * 2, indices.position() + add);
+            int pos = indices.position();
+            indices = MemoryUtil.memRealloc(indices, capacity);
+            indices.clear();
+            indices.position(pos);
+        }
+    }
+
+    public ElementBuffer putTriangle(int a, int b, int c) {
+        ensureSize(3);
+        triangles++;
+        indices.put(a).put(b).put(c);
+        return this;
+    }
+
+    public int getTriangles() {
+        return triangles;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // Discard all the triangles, the buffer can be filled again and uploaded without allocating
+    public ElementBuffer clear() {
+        indices.clear();
+        triangles = 0;
+        return this;
+    }
+
+    public ElementBuffer upload() {
+        int pos = indices.position();
+        indices.flip();
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, id);
+        if (pos * 4 > storage) {
+            storage = indices.capacity() * 4;
+            glBufferData(GL_ELEMENT_ARRAY_BUFFER, storage, mode);
+        }
+        glBufferSubData(GL_ELEMENT_ARRAY_BUFFER, 0, indices);
+        indices.clear();
+        indices.position(pos);
+        return this;
+    }
+
+    public void destroy() {
+        glDeleteBuffers(id);
+        MemoryUtil.memFree(indices);
+        indices = null;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import com.google.common.base.Preconditions;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Builds vertices in memory without any GL call, so meshes can be built on worker threads. A builder is not
+ * thread-safe: every thread fills its own builders, and the render thread loads them into a {@link VertexBuffer} with
+ * {@link VertexBuffer#load(MeshBuilder)} or {@link VertexArray#upload(MeshBuilder)}.
+ * <p>
+ * The memory is allocated by MemoryUtil, call {@link #free()} when the builder is no longer used.
+ */
+public class MeshBuilder {
+
+    protected final VertexFormat format;
+    protected final int size;
+    protected final VertexFormat.Element position;
+    protected final VertexFormat.Element color;
+    protected final VertexFormat.Element uv;
+    protected ByteBuffer vertices;
+    protected int nowVertexes = 0;
+
+    public MeshBuilder(int vertexes) {
+        this(vertexes, VertexFormat.POSITION_COLOR_TEX);
+    }
+
+    public MeshBuilder(int vertexes, VertexFormat format) {
+        this(format);
+        vertices = MemoryUtil.memAlloc(Math.max(vertexes, 1) * size);
+    }
+
+    // The subclass should provide the memory of the vertices
+    protected MeshBuilder(VertexFormat format) {
+        this.format = format;
+        size = format.getStride();
+        position = format.getElement(VertexFormat.Usage.POSITION);
+        color = format.getElement(VertexFormat.Usage.COLOR);
+        uv = format.getElement(VertexFormat.Usage.UV);
+    }
+
+    // Make sure the memory can hold the given count of vertices
+    protected void ensureSize(int vertexes) {
+        if (vertices.capacity() < vertexes * size) {
+            int capacity = Math.max(vertices.capacity() * 2, vertexes * size);
+            vertices = MemoryUtil.memRealloc(vertices, capacity);
+            vertices.clear();
+        }
+    }
+
+    protected VertexFormat.Element checkElement(VertexFormat.Element element, String name) {
+        Preconditions.checkState(element != null, "The vertex format has no %s", name);
+        return element;
+    }
+
+    public MeshBuilder pos(float x, float y, float z) {
+        ensureSize(nowVertexes + 1);
+        checkElement(position, "position").put(vertices, nowVertexes * size, x, y, z, 1);
+        return this;
+    }
+
+    public MeshBuilder color(int color) {
+        int R = (color >> 16) & 0xFF;
+        int G = (color >> 8) & 0xFF;
+        int B = color & 0xFF;
+        return color(R / 255f, G / 255f, B / 255f);
+    }
+
+    public MeshBuilder color(float r, float g, float b) {
+        return colorAlpha(r, g, b, 1);
+    }
+
+    public MeshBuilder colorAlpha(int color) {
+        int R = (color >> 24) & 0xFF;
+        int G = (color >> 16) & 0xFF;
+        int B = (color >> 8) & 0xFF;
+        int A = color & 0xFF;
+        return colorAlpha(R / 255f, G / 255f, B / 255f, A / 255f);
+    }
+
+    public MeshBuilder colorAlpha(float r, float g, float b, float a) {
+        ensureSize(nowVertexes + 1);
+        checkElement(color, "color").put(vertices, nowVertexes * size, r, g, b, a);
+        return this;
+    }
+
+    public MeshBuilder uv(float u, float v) {
+        ensureSize(nowVertexes + 1);
+        checkElement(uv, "uv").put(vertices, nowVertexes * size, u, v, 0, 1);
+        return this;
+    }
+
+    // The layer is for texture arrays, half float UVs hold the layers up to 2048 exactly
+    public MeshBuilder uv(float u, float v, int layer) {
+        ensureSize(nowVertexes + 1);
+        checkElement(uv, "uv").put(vertices, nowVertexes * size, u, v, layer, 1);
+        return this;
+    }
+
+    // Write the element at the index in the format into the current vertex
+    public MeshBuilder element(int index, float a, float b, float c, float d) {
+        ensureSize(nowVertexes + 1);
+        format.getElements().get(index).put(vertices, nowVertexes * size, a, b, c, d);
+        return this;
+    }
+
+    // Write a quad instance in VertexFormat.QUAD_INSTANCE, the layer is for texture arrays and 0 otherwise
+    public MeshBuilder quadInstance(float x1, float y1, float x2, float y2, float u1, float v1, float u2, float v2,
+                                    int layer, float r, float g, float b) {
+        Preconditions.checkState(format == VertexFormat.QUAD_INSTANCE, "The format is not QUAD_INSTANCE");
+        element(0, x1, y1, x2, y2);
+        element(1, u1, v1, u2, v2);
+        element(2, r, g, b, 1);
+        element(3, layer, 0, 0, 0);
+        endVertex();
+        return this;
+    }
+
+    public void endVertex() {
+        nowVertexes++;
+    }
+
+    public int getVertexes() {
+        return nowVertexes;
+    }
+
+    public VertexFormat getFormat() {
+        return format;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // Discard the vertices from the count, new vertices are written after them
+    public MeshBuilder truncate(int vertexes) {
+        Preconditions.checkArgument(vertexes >= 0 && vertexes <= nowVertexes, "Invalid vertex count %s", vertexes);
+        nowVertexes = vertexes;
+        return this;
+    }
+
+    // Discard all the vertices, the builder can be filled again without allocating
+    public MeshBuilder clear() {
+        vertices.clear();
+        nowVertexes = 0;
+        return this;
+    }
+
+    public void free() {
+        MemoryUtil.memFree(vertices);
+        vertices = null;
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import com.github.isam.render.shader.ShaderProgram;
+import com.github.isam.render.texture.Texture;
+import com.github.isam.util.RadixSort;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import javax.annotation.Nullable;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL43.*;
+
+/**
+ * Collects the draws of vertex arrays in a frame, each with a sort key, and draws them in the order of the keys with
+ * as few state changes as possible. Layers are drawn in order, the draws in a layer are grouped by shader, texture and
+ * source (the vertex array of a GL buffer and a vertex format), then ordered by depth. Draws with the same key keep
+ * their submission order.
+ * <p>
+ * A run of quad draws in the same state, even across layers, is issued with one multi-draw call:
+ * glMultiDrawElementsIndirect if it is supported, otherwise glMultiDrawElementsBaseVertex. The meshes must be stored
+ * in the same buffer to be merged, so they should be allocated from a {@link BufferArena}. Arrays which can't be
+ * merged (with their own element buffer, or instanced) are drawn by themselves in their place.
+ * <p>
+ * {@link #flush()} draws everything at once. To put other draws between the layers, call {@link #prepare()}, then
+ * {@link #drawThrough(int)} layer by layer and {@link #finish()} at last.
+ */
+public class MultiDrawQueue {
+
+    // count, instanceCount, firstIndex, baseVertex, baseInstance
+    private static final int COMMAND_INTS = 5;
+    // Sort key: | -- layer -- | -- shader -- | -- texture -- | -- source -- | -- depth -- |
+    //                16             10              10              12             16
+    private static final int DEPTH_BITS = 16;
+    private static final int SOURCE_BITS = 12;
+    private static final int TEXTURE_BITS = 10;
+    private static final int SHADER_BITS = 10;
+    private static final int LAYER_SHIFT = SHADER_BITS + TEXTURE_BITS + SOURCE_BITS + DEPTH_BITS;
+    private static final long STATE_MASK = (1L << (SHADER_BITS + TEXTURE_BITS + SOURCE_BITS)) - 1;
+    // Source of the arrays drawn by themselves
+    private static final int SINGLE_SOURCE = (1 << SOURCE_BITS) - 1;
+
+    private final boolean indirect;
+    private final List<Source> sources = new ArrayList<>();
+    private final List<ShaderProgram> shaders = new ArrayList<>();
+    private final List<Texture> textures = new ArrayList<>();
+    private final Reference2IntMap<ShaderProgram> shaderIndex = new Reference2IntOpenHashMap<>();
+    private final Reference2IntMap<Texture> textureIndex = new Reference2IntOpenHashMap<>();
+    // Scratch of the radix sort
+    private final int[] counts = new int[RadixSort.RADIX];
+    // The meshes can be moved by the arena until flushing, resolve their buffers at that time
+    private final List<VertexArray> arrays = new ArrayList<>();
+    private long[] keys = new long[256];
+    private int[] order = new int[256];
+    private long[] keyScratch = new long[256];
+    private int[] orderScratch = new int[256];
+    private int indirectBuffer;
+    private IntBuffer commands;
+    private PointerBuffer indices;
+    private int drawCalls;
+    private int stateChanges;
+    // Draws sorted by prepare, the next one to draw and its indirect command
+    private int count;
+    private int next;
+    private int command;
+
+    public MultiDrawQueue() {
+        GLCapabilities caps = GL.getCapabilities();
+        indirect = caps.OpenGL43 || caps.GL_ARB_multi_draw_indirect;
+        if (indirect)
+            indirectBuffer = glGenBuffers();
+        commands = MemoryUtil.memAllocInt(256 * COMMAND_INTS);
+        indices = MemoryUtil.memCallocPointer(256);
+        shaderIndex.defaultReturnValue(-1);
+        textureIndex.defaultReturnValue(-1);
+    }
+
+    public void submit(VertexArray array, @Nullable Texture texture) {
+        submit(array, texture, 0, 0);
+    }
+
+    // The texture is bound to unit 0 before drawing, null for no texture. Layers are clamped to the range of short,
+    // depths to [0, 65535].
+    public void submit(VertexArray array, @Nullable Texture texture, int layer, int depth) {
+        if (array.isQuads() && !array.isInstanced() && array.getVBO().getVertexes() < 4)
+            return;
+        int shaderId = shaderIndex.getInt(array.getShader());
+        if (shaderId == -1) {
+            Preconditions.checkState(shaders.size() < 1 << SHADER_BITS, "Too many shaders in a frame");
+            shaderId = shaders.size();
+            shaders.add(array.getShader());
+            shaderIndex.put(array.getShader(), shaderId);
+        }
+        int textureId = textureIndex.getInt(texture);
+        if (textureId == -1) {
+            Preconditions.checkState(textures.size() < 1 << TEXTURE_BITS, "Too many textures in a frame");
+            textureId = textures.size();
+            textures.add(texture);
+            textureIndex.put(texture, textureId);
+        }
+        int count = arrays.size();
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            order = new int[count * 2];
+            keyScratch = new long[count * 2];
+            orderScratch = new int[count * 2];
+        }
+        long layerKey = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, layer)) - Short.MIN_VALUE;
+        // The source is known when flushing
+        keys[count] = layerKey << LAYER_SHIFT |
+                (long) shaderId << (TEXTURE_BITS + SOURCE_BITS + DEPTH_BITS) |
+                (long) textureId << (SOURCE_BITS + DEPTH_BITS) | Math.max(0, Math.min(0xFFFF, depth));
+        arrays.add(array);
+    }
+
+    private int getSource(VertexBuffer mesh) {
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            if (source.generation == mesh.getStorageGeneration() && source.format == mesh.getFormat()) {
+                source.used = true;
+                return i;
+            }
+        }
+        Preconditions.checkState(sources.size() < SINGLE_SOURCE, "Too many vertex buffers in a frame");
+        sources.add(new Source(mesh.getId(), mesh.getStorageGeneration(), mesh.getFormat()));
+        return sources.size() - 1;
+    }
+
+    public void flush() {
+        prepare();
+        drawThrough(Integer.MAX_VALUE);
+        finish();
+    }
+
+    // Sorts the draws of the frame, nothing is drawn yet
+    public void prepare() {
+        drawCalls = 0;
+        stateChanges = 0;
+        count = arrays.size();
+        next = 0;
+        command = 0;
+        int maxQuads = 0;
+        for (int i = 0; i < count; i++) {
+            VertexArray array = arrays.get(i);
+            int source = SINGLE_SOURCE;
+            if (array.isQuads() && !array.isInstanced()) {
+                VertexBuffer mesh = array.getVBO();
+                mesh.flush();
+                source = getSource(mesh);
+                maxQuads = Math.max(maxQuads, mesh.getVertexes() / 4);
+            }
+            keys[i] |= (long) source << DEPTH_BITS;
+            order[i] = i;
+        }
+        if (count > 0) {
+            RadixSort.sort(keys, order, count, keyScratch, orderScratch, counts);
+            QuadIndexBuffer.ensureSize(maxQuads);
+            if (indirect)
+                uploadCommands(count);
+        }
+    }
+
+    // The layer of the next draw, Integer.MAX_VALUE if all are drawn
+    public int nextLayer() {
+        return next < count ? layerOf(keys[next]) : Integer.MAX_VALUE;
+    }
+
+    // Draws the sorted draws up to the layer (inclusive). The GL state is bound again in every call, so others can
+    // draw between the calls.
+    public void drawThrough(int layer) {
+        int end = next;
+        while (end < count && layerOf(keys[end]) <= layer)
+            end++;
+        if (end > next)
+            drawSorted(next, end);
+        next = end;
+    }
+
+    // Draws the rest and clears the queue for the next frame
+    public void finish() {
+        drawThrough(Integer.MAX_VALUE);
+        count = 0;
+        next = 0;
+        // Release the sources unused in this frame, their buffers may have been deleted
+        for (int i = sources.size() - 1; i >= 0; i--) {
+            Source source = sources.get(i);
+            if (!source.used) {
+                glDeleteVertexArrays(source.array);
+                sources.remove(i);
+            } else
+                source.used = false;
+        }
+        arrays.clear();
+        shaders.clear();
+        textures.clear();
+        shaderIndex.clear();
+        textureIndex.clear();
+    }
+
+    private static int layerOf(long key) {
+        return (int) (key >>> LAYER_SHIFT) + Short.MIN_VALUE;
+    }
+
+    private static int sourceOf(long key) {
+        return (int) (key >>> DEPTH_BITS) & SINGLE_SOURCE;
+    }
+
+    // The commands of the merged draws in the sorted order
+    private void uploadCommands(int count) {
+        ensureCommands(count);
+        commands.clear();
+        for (int i = 0; i < count; i++) {
+            if (sourceOf(keys[i]) == SINGLE_SOURCE)
+                continue;
+            VertexBuffer mesh = arrays.get(order[i]).getVBO();
+            commands.put(mesh.getVertexes() / 4 * 6).put(1).put(0).put(mesh.getBaseVertex()).put(0);
+        }
+        commands.flip();
+        glBindBuffer(GL_DRAW_INDIRECT_BUFFER, indirectBuffer);
+        // Orphan the storage of the last frame
+        glBufferData(GL_DRAW_INDIRECT_BUFFER, (long) commands.capacity() * 4, GL_STREAM_DRAW);
+        glBufferSubData(GL_DRAW_INDIRECT_BUFFER, 0, commands);
+    }
+
+    private void ensureCommands(int draws) {
+        if (commands.capacity() < draws * COMMAND_INTS)
+            commands = MemoryUtil.memRealloc(commands, Math.max(commands.capacity() * 2, draws * COMMAND_INTS));
+        if (indices.capacity() < draws) {
+            indices = MemoryUtil.memRealloc(indices, Math.max(indices.capacity() * 2, draws));
+            for (int i = 0; i < indices.capacity(); i++)
+                indices.put(i, 0);
+        }
+    }
+
+    private void drawSorted(int from, int to) {
+        int type = QuadIndexBuffer.getType();
+        int nowShader = -1;
+        int nowTexture = -1;
+        int nowSource = -1;
+        if (indirect)
+            glBindBuffer(GL_DRAW_INDIRECT_BUFFER, indirectBuffer);
+        for (int start = from, end; start < to; start = end) {
+            long state = keys[start] >>> DEPTH_BITS & STATE_MASK;
+            int source = (int) state & SINGLE_SOURCE;
+            int textureId = (int) (state >>> SOURCE_BITS) & ((1 << TEXTURE_BITS) - 1);
+            int shaderId = (int) (state >>> (SOURCE_BITS + TEXTURE_BITS));
+            end = start + 1;
+            if (source != SINGLE_SOURCE)
+                while (end < to && (keys[end] >>> DEPTH_BITS & STATE_MASK) == state)
+                    end++;
+            if (textureId != nowTexture) {
+                nowTexture = textureId;
+                Texture texture = textures.get(textureId);
+                if (texture != null) {
+                    texture.activeAndBind(0);
+                    stateChanges++;
+                }
+            }
+            if (source == SINGLE_SOURCE) {
+                // Uses the shader and binds the vertex array of its own
+                arrays.get(order[start]).render();
+                nowShader = shaderId;
+                nowSource = -1;
+                stateChanges += 2;
+                drawCalls++;
+                continue;
+            }
+            if (shaderId != nowShader) {
+                nowShader = shaderId;
+                shaders.get(shaderId).use();
+                stateChanges++;
+            }
+            if (source != nowSource) {
+                nowSource = source;
+                sources.get(source).bind();
+                stateChanges++;
+            }
+            int draws = end - start;
+            if (indirect) {
+                glMultiDrawElementsIndirect(GL_TRIANGLES, type, (long) command * COMMAND_INTS * 4, draws, 0);
+                command += draws;
+            } else {
+                ensureCommands(draws);
+                commands.clear();
+                IntBuffer counts = MemoryUtil.memSlice(commands, 0, draws);
+                IntBuffer bases = MemoryUtil.memSlice(commands, draws, draws);
+                for (int i = start; i < end; i++) {
+                    VertexBuffer mesh = arrays.get(order[i]).getVBO();
+                    counts.put(mesh.getVertexes() / 4 * 6);
+                    bases.put(mesh.getBaseVertex());
+                }
+                counts.flip();
+                bases.flip();
+                indices.clear().limit(draws);
+                glMultiDrawElementsBaseVertex(GL_TRIANGLES, counts, type, indices, bases);
+            }
+            drawCalls++;
+        }
+        glBindVertexArray(0);
+        if (indirect)
+            glBindBuffer(GL_DRAW_INDIRECT_BUFFER, 0);
+    }
+
+    // Draw calls used by the last flush
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    // Shader uses, texture binds and vertex array binds of the last flush
+    public int getStateChanges() {
+        return stateChanges;
+    }
+
+    public boolean isIndirect() {
+        return indirect;
+    }
+
+    public void destroy() {
+        for (Source source : sources)
+            glDeleteVertexArrays(source.array);
+        sources.clear();
+        if (indirectBuffer != 0)
+            glDeleteBuffers(indirectBuffer);
+        MemoryUtil.memFree(commands);
+        MemoryUtil.memFree(indices);
+    }
+
+    private static class Source {
+
+        // A source belongs to one storage generation, so the pointers are set once
+        private final int generation;
+        private final VertexFormat format;
+        private final int array;
+        private boolean used = true;
+
+        private Source(int buffer, int generation, VertexFormat format) {
+            this.generation = generation;
+            this.format = format;
+            array = glGenVertexArrays();
+            glBindVertexArray(array);
+            QuadIndexBuffer.bind(1);
+            glBindBuffer(GL_ARRAY_BUFFER, buffer);
+            format.setupPointers();
+            glBindVertexArray(0);
+        }
+
+        private void bind() {
+            glBindVertexArray(array);
+        }
+    }
+}
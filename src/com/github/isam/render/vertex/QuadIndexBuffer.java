@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * The element buffer shared by all the quad geometry. Quad n is made of the triangles (4n, 4n+1, 4n+3) and
+ * (4n+1, 4n+2, 4n+3). The buffer grows lazily and keeps its GL name, so vertex arrays bound to it stay valid. The
+ * indices are 16-bit until the quads need more than 65536 vertices.
+ */
+public class QuadIndexBuffer {
+
+    public static final int MAX_SHORT_QUADS = 65536 / 4;
+
+    private static int id;
+    private static int quads;
+    private static int type = GL_UNSIGNED_SHORT;
+
+    private QuadIndexBuffer() {
+    }
+
+    public static void ensureSize(int needQuads) {
+        if (needQuads <= quads)
+            return;
+        int size = Math.max(256, quads);
+        while (size < needQuads)
+            size *= 2;
+        if (id == 0)
+            id = glGenBuffers();
+        // Don't touch the element buffer binding of the current vertex array
+        glBindBuffer(GL_COPY_WRITE_BUFFER, id);
+        if (size <= MAX_SHORT_QUADS) {
+            ShortBuffer indices = MemoryUtil.memAllocShort(size * 6);
+            for (int i = 0; i < size; i++) {
+                int base = i * 4;
+                indices.put((short) base).put((short) (base + 1)).put((short) (base + 3));
+                indices.put((short) (base + 1)).put((short) (base + 2)).put((short) (base + 3));
+            }
+            indices.flip();
+            glBufferData(GL_COPY_WRITE_BUFFER, indices, GL_STATIC_DRAW);
+            MemoryUtil.memFree(indices);
+            type = GL_UNSIGNED_SHORT;
+        } else {
+            IntBuffer indices = MemoryUtil.memAllocInt(size * 6);
+            for (int i = 0; i < size; i++) {
+                int base = i * 4;
+                indices.put(base).put(base + 1).put(base + 3);
+                indices.put(base + 1).put(base + 2).put(base + 3);
+            }
+            indices.flip();
+            glBufferData(GL_COPY_WRITE_BUFFER, indices, GL_STATIC_DRAW);
+            MemoryUtil.memFree(indices);
+            type = GL_UNSIGNED_INT;
+        }
+        glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+        quads = size;
+    }
+
+    // Bind as the element buffer of the current vertex array
+    public static void bind(int needQuads) {
+        ensureSize(Math.max(needQuads, 1));
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, id);
+    }
+
+    public static int getId() {
+        return id;
+    }
+
+    public static int getType() {
+        return type;
+    }
+
+    public static int getIndexSize() {
+        return type == GL_UNSIGNED_SHORT ? 2 : 4;
+    }
+
+    public static void destroy() {
+        if (id != 0)
+            glDeleteBuffers(id);
+        id = 0;
+        quads = 0;
+    }
+}
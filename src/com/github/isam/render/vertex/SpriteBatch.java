@@ -0,0 +1,241 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import com.github.isam.render.shader.ShaderProgram;
+import com.github.isam.render.shader.Shaders;
+import com.github.isam.render.texture.Texture;
+import com.github.isam.util.RadixSort;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects textured quads of a frame into one {@link StreamVertexBuffer}. The quads are sorted by layer, shader and
+ * texture when flushing, so every run of quads sharing the same state costs only one draw call. Quads in the same
+ * layer and state keep their submission order.
+ * <p>
+ * Like {@link MultiDrawQueue}, the quads can be drawn layer by layer with {@link #prepare()},
+ * {@link #drawThrough(int)} and {@link #finish()}.
+ */
+public class SpriteBatch {
+
+    // 4 vertices * (position 3 + color 3 + uv 2)
+    private static final int FLOATS_PER_QUAD = 32;
+
+    private final StreamVertexBuffer buffer;
+    private final VertexArray array;
+
+    private final List<ShaderProgram> shaders = new ArrayList<>();
+    private final List<Texture> textures = new ArrayList<>();
+    private final Reference2IntMap<ShaderProgram> shaderIndex = new Reference2IntOpenHashMap<>();
+    private final Reference2IntMap<Texture> textureIndex = new Reference2IntOpenHashMap<>();
+    // Scratch of the radix sort
+    private final int[] counts = new int[RadixSort.RADIX];
+
+    private float[] quadData;
+    private long[] keys;
+    private int[] order;
+    private long[] keyScratch;
+    private int[] orderScratch;
+    private int quads;
+    // The next sorted quad to draw
+    private int next;
+    private int drawCalls;
+    private int stateChanges;
+
+    public SpriteBatch(int quads) {
+        quadData = new float[quads * FLOATS_PER_QUAD];
+        keys = new long[quads];
+        order = new int[quads];
+        keyScratch = new long[quads];
+        orderScratch = new int[quads];
+        buffer = new StreamVertexBuffer(quads * 4, VertexFormat.POSITION_COLOR_TEX_PACKED);
+        array = new VertexArray(Shaders.SIMPLE);
+        array.bindVBO(buffer);
+        array.bindQuadIndices();
+        array.upload();
+    }
+
+    private void ensureSize() {
+        if (quads < keys.length)
+            return;
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        order = new int[keys.length];
+        keyScratch = new long[keys.length];
+        orderScratch = new int[keys.length];
+        quadData = Arrays.copyOf(quadData, keys.length * FLOATS_PER_QUAD);
+    }
+
+    public SpriteBatch draw(ShaderProgram shader, Texture texture, float x1, float y1, float x2, float y2, float tx1,
+                            float ty1, float tx2, float ty2) {
+        return draw(shader, texture, x1, y1, x2, y2, tx1, ty1, tx2, ty2, 1, 1, 1);
+    }
+
+    public SpriteBatch draw(ShaderProgram shader, Texture texture, float x1, float y1, float x2, float y2, float tx1,
+                            float ty1, float tx2, float ty2, float r, float g, float b) {
+        return draw(shader, texture, x1, y1, x2, y2, tx1, ty1, tx2, ty2, r, g, b, 0);
+    }
+
+    // Layers are clamped to the range of short
+    public SpriteBatch draw(ShaderProgram shader, Texture texture, float x1, float y1, float x2, float y2, float tx1,
+                            float ty1, float tx2, float ty2, float r, float g, float b, int layer) {
+        ensureSize();
+        int shaderId = shaderIndex.getOrDefault(shader, -1);
+        if (shaderId == -1) {
+            shaderId = shaders.size();
+            shaders.add(shader);
+            shaderIndex.put(shader, shaderId);
+        }
+        int textureId = textureIndex.getOrDefault(texture, -1);
+        if (textureId == -1) {
+            textureId = textures.size();
+            textures.add(texture);
+            textureIndex.put(texture, textureId);
+        }
+        // Sort key: | -- unused -- | -- layer -- | -- shader -- | -- texture -- |, the radix sort is stable
+        //                 16             16            16              16
+        long layerKey = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, layer)) - Short.MIN_VALUE;
+        keys[quads] = layerKey << 32 | (long) shaderId << 16 | textureId;
+        int offset = quads * FLOATS_PER_QUAD;
+        offset = putVertex(offset, x1, y1, r, g, b, tx1, ty2);
+        offset = putVertex(offset, x2, y1, r, g, b, tx2, ty2);
+        offset = putVertex(offset, x2, y2, r, g, b, tx2, ty1);
+        putVertex(offset, x1, y2, r, g, b, tx1, ty1);
+        quads++;
+        return this;
+    }
+
+    private int putVertex(int offset, float x, float y, float r, float g, float b, float u, float v) {
+        float[] data = quadData;
+        data[offset] = x;
+        data[offset + 1] = y;
+        data[offset + 2] = 0;
+        data[offset + 3] = r;
+        data[offset + 4] = g;
+        data[offset + 5] = b;
+        data[offset + 6] = u;
+        data[offset + 7] = v;
+        return offset + 8;
+    }
+
+    public int getQuads() {
+        return quads;
+    }
+
+    // Draw calls used by the last flush
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    // Shader uses and texture binds of the last flush
+    public int getStateChanges() {
+        return stateChanges;
+    }
+
+    public void flush() {
+        prepare();
+        drawThrough(Integer.MAX_VALUE);
+        finish();
+    }
+
+    // Sorts the quads of the frame and uploads them, nothing is drawn yet
+    public void prepare() {
+        drawCalls = 0;
+        stateChanges = 0;
+        next = 0;
+        if (quads == 0)
+            return;
+        for (int i = 0; i < quads; i++)
+            order[i] = i;
+        RadixSort.sort(keys, order, quads, keyScratch, orderScratch, counts);
+        buffer.begin();
+        for (int i = 0; i < quads; i++) {
+            int offset = order[i] * FLOATS_PER_QUAD;
+            for (int vertex = 0; vertex < 4; vertex++, offset += 8)
+                buffer.pos(quadData[offset], quadData[offset + 1], quadData[offset + 2])
+                        .color(quadData[offset + 3], quadData[offset + 4], quadData[offset + 5])
+                        .uv(quadData[offset + 6], quadData[offset + 7]).endVertex();
+        }
+        buffer.upload();
+    }
+
+    private static int layerOf(long key) {
+        return (int) (key >>> 32) + Short.MIN_VALUE;
+    }
+
+    // The layer of the next quad, Integer.MAX_VALUE if all are drawn
+    public int nextLayer() {
+        return next < quads ? layerOf(keys[next]) : Integer.MAX_VALUE;
+    }
+
+    // Draws the sorted quads up to the layer (inclusive)
+    public void drawThrough(int layer) {
+        int to = next;
+        while (to < quads && layerOf(keys[to]) <= layer)
+            to++;
+        if (to == next)
+            return;
+        array.bind();
+        stateChanges++;
+        int start = next;
+        // Runs of the same state in adjacent layers are drawn together
+        long state = keys[start] & 0xFFFFFFFFL;
+        int nowShader = -1;
+        int nowTexture = -1;
+        for (int i = start + 1; i <= to; i++) {
+            if (i < to && (keys[i] & 0xFFFFFFFFL) == state)
+                continue;
+            int shaderId = (int) (state >>> 16);
+            int textureId = (int) (state & 0xFFFF);
+            if (shaderId != nowShader) {
+                shaders.get(nowShader = shaderId).use();
+                stateChanges++;
+            }
+            if (textureId != nowTexture) {
+                textures.get(nowTexture = textureId).activeAndBind(0);
+                stateChanges++;
+            }
+            array.draw(start * 2, (i - start) * 2);
+            drawCalls++;
+            if (i < to) {
+                start = i;
+                state = keys[i] & 0xFFFFFFFFL;
+            }
+        }
+        array.unbind();
+        next = to;
+    }
+
+    // Draws the rest and clears the batch for the next frame
+    public void finish() {
+        drawThrough(Integer.MAX_VALUE);
+        quads = 0;
+        next = 0;
+        shaders.clear();
+        textures.clear();
+        shaderIndex.clear();
+        textureIndex.clear();
+    }
+
+    public void destroy() {
+        array.destroy();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import com.google.common.base.Preconditions;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.lwjgl.opengl.GL44.*;
+
+/**
+ * A vertex buffer whose content is rebuilt every frame. Call {@link #begin()} before writing the vertices of a frame
+ * and {@link #upload()} before drawing them.
+ * <p>
+ * If buffer storage is supported, the buffer is a persistently mapped ring of {@link #FRAMES} segments. Every frame
+ * writes into the next segment after the fence of its last use has been signaled, and draws with the segment start
+ * as the base vertex. Otherwise the buffer is orphaned and mapped again every frame. The vertices are written into
+ * the mapped memory directly in both modes.
+ */
+public class StreamVertexBuffer extends VertexBuffer {
+
+    public static final int FRAMES = 3;
+
+    private final boolean persistent;
+    private final long[] fences = new long[FRAMES];
+    private final ByteBuffer[] segments = new ByteBuffer[FRAMES];
+    private ByteBuffer mapped;
+    private int segmentVertexes;
+    private int segment;
+    private boolean writing;
+
+    public StreamVertexBuffer(int vertexes) {
+        this(vertexes, VertexFormat.POSITION_COLOR_TEX);
+    }
+
+    public StreamVertexBuffer(int vertexes, VertexFormat format) {
+        super(GL_STREAM_DRAW, format);
+        id = glGenBuffers();
+        storageGeneration = nextStorageGeneration();
+        GLCapabilities caps = GL.getCapabilities();
+        persistent = caps.OpenGL44 || caps.GL_ARB_buffer_storage;
+        segmentVertexes = vertexes;
+        if (persistent) {
+            createStorage();
+            vertices = segments[0];
+        }
+    }
+
+    private void createStorage() {
+        int flags = GL_MAP_WRITE_BIT | GL_MAP_PERSISTENT_BIT | GL_MAP_COHERENT_BIT;
+        long segmentLength = (long) segmentVertexes * size;
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glBufferStorage(GL_ARRAY_BUFFER, segmentLength * FRAMES, flags);
+        mapped = glMapBufferRange(GL_ARRAY_BUFFER, 0, segmentLength * FRAMES, flags);
+        if (mapped == null)
+            throw new IllegalStateException("Can't map the streaming vertex buffer");
+        long address = MemoryUtil.memAddress(mapped);
+        for (int i = 0; i < FRAMES; i++)
+            segments[i] = MemoryUtil.memByteBuffer(address + segmentLength * i, (int) segmentLength);
+    }
+
+    private void mapFrame() {
+        long length = (long) segmentVertexes * size;
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glBufferData(GL_ARRAY_BUFFER, length, GL_STREAM_DRAW);
+        mapped = glMapBufferRange(GL_ARRAY_BUFFER, 0, length, GL_MAP_WRITE_BIT | GL_MAP_INVALIDATE_BUFFER_BIT, mapped);
+        if (mapped == null)
+            throw new IllegalStateException("Can't map the streaming vertex buffer");
+        vertices = mapped.order(ByteOrder.nativeOrder());
+    }
+
+    private void waitFence(int segment) {
+        long fence = fences[segment];
+        if (fence == 0)
+            return;
+        int result;
+        do
+            result = glClientWaitSync(fence, GL_SYNC_FLUSH_COMMANDS_BIT, 1000000L);
+        while (result == GL_TIMEOUT_EXPIRED);
+        glDeleteSync(fence);
+        fences[segment] = 0;
+    }
+
+    public StreamVertexBuffer begin() {
+        Preconditions.checkState(!writing, "The buffer is already being written");
+        writing = true;
+        nowVertexes = 0;
+        if (persistent) {
+            // The draw calls reading the last segment have been issued
+            fences[segment] = glFenceSync(GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+            segment = (segment + 1) % FRAMES;
+            waitFence(segment);
+            vertices = segments[segment];
+        } else
+            mapFrame();
+        return this;
+    }
+
+    @Override
+    protected void ensureSize(int vertexes) {
+        Preconditions.checkState(writing, "Call begin() before writing vertices");
+        if (vertexes > segmentVertexes)
+            grow(Math.max(segmentVertexes * 2, vertexes));
+    }
+
+    private void grow(int vertexes) {
+        long used = (long) nowVertexes * size;
+        long temp = MemoryUtil.nmemAlloc(Math.max(used, 1));
+        MemoryUtil.memCopy(MemoryUtil.memAddress0(vertices), temp, used);
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glUnmapBuffer(GL_ARRAY_BUFFER);
+        segmentVertexes = vertexes;
+        if (persistent) {
+            // Immutable storage can't be resized, replace the whole buffer
+            for (int i = 0; i < FRAMES; i++)
+                waitFence(i);
+            glDeleteBuffers(id);
+            id = glGenBuffers();
+            storageGeneration = nextStorageGeneration();
+            mapped = null;
+            createStorage();
+            segment = 0;
+            vertices = segments[0];
+        } else
+            mapFrame();
+        MemoryUtil.memCopy(temp, MemoryUtil.memAddress0(vertices), used);
+        MemoryUtil.nmemFree(temp);
+    }
+
+    @Override
+    protected int vertexStart(int vertex) {
+        Preconditions.checkState(writing || persistent, "The buffer is not mapped");
+        return super.vertexStart(vertex);
+    }
+
+    @Override
+    protected void markDirty(int index, int bytes) {
+        // Written into the mapped memory directly
+    }
+
+    @Override
+    public int getBaseVertex() {
+        return persistent ? segment * segmentVertexes : 0;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    @Override
+    public VertexBuffer upload() {
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        if (writing) {
+            writing = false;
+            if (!persistent)
+                glUnmapBuffer(GL_ARRAY_BUFFER);
+        }
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+        if (persistent || writing) {
+            glBindBuffer(GL_ARRAY_BUFFER, id);
+            glUnmapBuffer(GL_ARRAY_BUFFER);
+        }
+        for (long fence : fences)
+            if (fence != 0)
+                glDeleteSync(fence);
+        super.destroy();
+    }
+
+    @Override
+    public void free() {
+        // The vertices are the mapped memory, nothing to free
+    }
+}
@@ -1,86 +1,186 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.github.isam.render.vertex;
-
-import com.github.isam.render.shader.ShaderProgram;
-
-import static org.lwjgl.opengl.GL30.*;
-
-public class VertexArray {
-
-    private ElementBuffer ebo;
-    private VertexBuffer vbo;
-    private final ShaderProgram shader;
-
-    private final int id;
-
-    public VertexArray(ShaderProgram shader) {
-        this.shader = shader;
-        id = glGenVertexArrays();
-    }
-
-    public VertexArray bindVBO(VertexBuffer vbo) {
-        this.vbo = vbo;
-        return this;
-    }
-
-    public VertexArray bindEBO(ElementBuffer ebo) {
-        this.ebo = ebo;
-        return this;
-    }
-
-    public VertexBuffer getVBO() {
-        return vbo;
-    }
-
-    public ElementBuffer getEBO() {
-        return ebo;
-    }
-
-    public void bind() {
-        glBindVertexArray(id);
-    }
-
-    public void unbind() {
-        glBindVertexArray(0);
-    }
-
-    public void upload() {
-        bind();
-        vbo.upload();
-        if (ebo != null)
-            ebo.upload();
-        vbo.setPointers();
-        unbind();
-    }
-
-    public void render() {
-        shader.use();
-        bind();
-        if (ebo == null)
-            glDrawArrays(GL_TRIANGLES, 0, vbo.getVertexes());
-        else
-            glDrawElements(GL_TRIANGLES, ebo.getTriangles() * 3, GL_UNSIGNED_INT, 0);
-        unbind();
-    }
-
-    public void destroy() {
-        glDeleteVertexArrays(id);
-        if (ebo != null)
-            ebo.destroy();
-        vbo.destroy();
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.isam.render.vertex;
+
+import com.github.isam.render.shader.ShaderProgram;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+import static org.lwjgl.opengl.GL42.*;
+
+public class VertexArray {
+
+    private ElementBuffer ebo;
+    private VertexBuffer vbo;
+    // Draw quads with the shared quad index buffer instead of an element buffer
+    private boolean quads;
+    // Every vertex in the vertex buffer is an instance of a quad
+    private boolean instanced;
+    private final ShaderProgram shader;
+
+    private final int id;
+    // The storage generation of the buffer which the attribute pointers refer to
+    private int pointerGeneration;
+
+    public VertexArray(ShaderProgram shader) {
+        this.shader = shader;
+        id = glGenVertexArrays();
+    }
+
+    public VertexArray bindVBO(VertexBuffer vbo) {
+        this.vbo = vbo;
+        instanced = false;
+        return this;
+    }
+
+    public VertexArray bindEBO(ElementBuffer ebo) {
+        this.ebo = ebo;
+        quads = false;
+        return this;
+    }
+
+    // Every 4 vertices in the vertex buffer make a quad
+    public VertexArray bindQuadIndices() {
+        ebo = null;
+        quads = true;
+        return this;
+    }
+
+    // Draw one quad per vertex in the buffer with glDrawElementsInstanced, the attributes of the buffer advance per
+    // instance. The shader makes the corners of the quad from gl_VertexID, like the instanced shaders in Shaders.
+    public VertexArray bindInstanceVBO(VertexBuffer instances) {
+        vbo = instances;
+        ebo = null;
+        quads = true;
+        instanced = true;
+        return this;
+    }
+
+    public VertexBuffer getVBO() {
+        return vbo;
+    }
+
+    public ElementBuffer getEBO() {
+        return ebo;
+    }
+
+    public ShaderProgram getShader() {
+        return shader;
+    }
+
+    public boolean isQuads() {
+        return quads;
+    }
+
+    public boolean isInstanced() {
+        return instanced;
+    }
+
+    public void bind() {
+        glBindVertexArray(id);
+        if (pointerGeneration != 0 && pointerGeneration != vbo.getStorageGeneration()) {
+            // The vertices have moved to another buffer
+            glBindBuffer(GL_ARRAY_BUFFER, vbo.getId());
+            vbo.setPointers(instanced ? 1 : 0);
+            pointerGeneration = vbo.getStorageGeneration();
+        }
+        if (quads)
+            QuadIndexBuffer.ensureSize(instanced ? 1 : vbo.getVertexes() / 4);
+        vbo.flush();
+    }
+
+    public void unbind() {
+        glBindVertexArray(0);
+    }
+
+    public void upload() {
+        glBindVertexArray(id);
+        vbo.upload();
+        if (ebo != null)
+            ebo.upload();
+        else if (quads)
+            QuadIndexBuffer.bind(instanced ? 1 : vbo.getVertexes() / 4);
+        vbo.setPointers(instanced ? 1 : 0);
+        pointerGeneration = vbo.getStorageGeneration();
+        unbind();
+    }
+
+    // Upload the vertices built by the builder, the builder can be built on any thread but this must be called on the
+    // render thread
+    public void upload(MeshBuilder builder) {
+        vbo.load(builder);
+        upload();
+    }
+
+    public void render() {
+        shader.use();
+        bind();
+        if (instanced)
+            drawInstances(0, vbo.getVertexes());
+        else if (quads)
+            draw(0, vbo.getVertexes() / 4 * 2);
+        else if (ebo == null)
+            glDrawArrays(GL_TRIANGLES, vbo.getBaseVertex(), vbo.getVertexes());
+        else
+            draw(0, ebo.getTriangles());
+        unbind();
+    }
+
+    // Draw a range of triangles in the element buffer, the array and the shader must have been bound
+    public void draw(int firstTriangle, int triangles) {
+        int type = quads ? QuadIndexBuffer.getType() : GL_UNSIGNED_INT;
+        long offset = (long) firstTriangle * 3 * (quads ? QuadIndexBuffer.getIndexSize() : 4);
+        int baseVertex = vbo.getBaseVertex();
+        if (baseVertex == 0)
+            glDrawElements(GL_TRIANGLES, triangles * 3, type, offset);
+        else
+            glDrawElementsBaseVertex(GL_TRIANGLES, triangles * 3, type, offset, baseVertex);
+    }
+
+    // Draw a range of instances, the array and the shader must have been bound
+    public void drawInstances(int firstInstance, int instances) {
+        int baseInstance = vbo.getBaseVertex() + firstInstance;
+        if (baseInstance == 0 && pointerGeneration == vbo.getStorageGeneration())
+            glDrawElementsInstanced(GL_TRIANGLES, 6, QuadIndexBuffer.getType(), 0, instances);
+        else if (BaseInstance.SUPPORTED)
+            glDrawElementsInstancedBaseInstance(GL_TRIANGLES, 6, QuadIndexBuffer.getType(), 0, instances,
+                    baseInstance);
+        else {
+            // Without GL 4.2 the pointers start from the first instance, they are set again at the next draw
+            glBindBuffer(GL_ARRAY_BUFFER, vbo.getId());
+            vbo.getFormat().setupPointers(1, (long) baseInstance * vbo.getFormat().getStride());
+            pointerGeneration = -1;
+            glDrawElementsInstanced(GL_TRIANGLES, 6, QuadIndexBuffer.getType(), 0, instances);
+        }
+    }
+
+    public void destroy() {
+        glDeleteVertexArrays(id);
+        if (ebo != null)
+            ebo.destroy();
+        vbo.destroy();
+    }
+
+    private static class BaseInstance {
+
+        private static final boolean SUPPORTED;
+
+        static {
+            GLCapabilities caps = GL.getCapabilities();
+            SUPPORTED = caps.OpenGL42 || caps.GL_ARB_base_instance;
+        }
+    }
+}
@@ -1,200 +1,233 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.github.isam.render.vertex;
-
-import com.google.common.base.Preconditions;
-
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-
-import static org.lwjgl.opengl.GL30.*;
-
-// Default memory layout:
-// | -- position -- | -- colorRGB -- | -- UV -- |
-//         12               12            8       length = 32
-
-public class VertexBuffer {
-
-    public static final Runnable DEFAULT_POINTER_SETTER = () -> {
-        glVertexAttribPointer(0, 3, GL_FLOAT, false, 4 * 8, 0);
-        glEnableVertexAttribArray(0);
-        glVertexAttribPointer(1, 3, GL_FLOAT, false, 4 * 8, 4 * 3);
-        glEnableVertexAttribArray(1);
-        glVertexAttribPointer(2, 2, GL_FLOAT, false, 4 * 8, 4 * 6);
-        glEnableVertexAttribArray(2);
-    };
-
-    private final int id;
-    private final int mode;
-    private final Runnable pointerSetter;
-    private final int size;
-    private FloatBuffer vertices;
-    private int nowVertexes = 0;
-
-    public VertexBuffer(int vertexes) {
-        this(vertexes, GL_STATIC_DRAW);
-    }
-
-    public VertexBuffer(int vertexes, int mode) {
-        this(vertexes, mode, DEFAULT_POINTER_SETTER, 32);
-    }
-
-    public VertexBuffer(int vertexes, int mode, Runnable setter, int size) {
-        this.mode = mode;
-        this.size = size;
-        id = glGenBuffers();
-        pointerSetter = setter;
-        vertices = ByteBuffer.allocateDirect(vertexes * size).order(ByteOrder.nativeOrder()).asFloatBuffer();
-    }
-
-    private void ensureSize(int add) {
-        if (vertices.capacity() < vertices.position() + add) {
-            FloatBuffer buffer = ByteBuffer.allocateDirect(vertices.capacity() * 2).order(ByteOrder.nativeOrder())
-                    .asFloatBuffer();
-            int pos = vertices.position();
-            vertices.position(0);
-            buffer.put(vertices);
-            buffer.rewind();
-            vertices = buffer;
-            vertices.position(pos);
-        }
-    }
-
-    public VertexBuffer pos(float x, float y, float z) {
-        ensureSize(3);
-        vertices.put(x).put(y).put(z);
-        return this;
-    }
-
-    public VertexBuffer color(int color) {
-        int R = (color >> 16) & 0xFF;
-        int G = (color >> 8) & 0xFF;
-        int B = color & 0xFF;
-        return color(R / 255f, G / 255f, B / 255f);
-    }
-
-    public VertexBuffer color(float r, float g, float b) {
-        ensureSize(3);
-        vertices.put(r).put(g).put(b);
-        return this;
-    }
-
-    public VertexBuffer colorAlpha(int color) {
-        int R = (color >> 24) & 0xFF;
-        int G = (color >> 16) & 0xFF;
-        int B = (color >> 8) & 0xFF;
-        int A = color & 0xFF;
-        return colorAlpha(R / 255f, G / 255f, B / 255f, A / 255f);
-    }
-
-    public VertexBuffer colorAlpha(float r, float g, float b, float a) {
-        ensureSize(4);
-        vertices.put(r).put(g).put(b).put(a);
-        return this;
-    }
-
-    public VertexBuffer uv(float u, float v) {
-        ensureSize(2);
-        vertices.put(u).put(v);
-        return this;
-    }
-
-    public void endVertex() {
-        nowVertexes++;
-    }
-
-    public int getVertexes() {
-        return nowVertexes;
-    }
-
-    public VertexBuffer updateVertexPos(int vertex, float x, float y, float z) {
-        return updateVertexPos(vertex, x, y, z, 0);
-    }
-
-    public VertexBuffer updateVertexPos(int vertex, float x, float y, float z, int offset) {
-        Preconditions.checkArgument(vertex < nowVertexes);
-        glBindBuffer(GL_ARRAY_BUFFER, id);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) vertex * size + offset, new float[]{x, y, z});
-        return this;
-    }
-
-    public VertexBuffer updateVertexColor(int vertex, int color) {
-        int R = (color >> 16) & 0xFF;
-        int G = (color >> 8) & 0xFF;
-        int B = color & 0xFF;
-        return updateVertexColor(vertex, R / 255f, G / 255f, B / 255f);
-    }
-
-    public VertexBuffer updateVertexColor(int vertex, float r, float g, float b) {
-        return updateVertexColor(vertex, r, g, b, 12);
-    }
-
-    public VertexBuffer updateVertexColor(int vertex, float r, float g, float b, int offset) {
-        Preconditions.checkArgument(vertex < nowVertexes);
-        glBindBuffer(GL_ARRAY_BUFFER, id);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) vertex * size + offset, new float[]{r, g, b});
-        return this;
-    }
-
-    public VertexBuffer updateVertexColorAlpha(int vertex, int color) {
-        int R = (color >> 24) & 0xFF;
-        int G = (color >> 16) & 0xFF;
-        int B = (color >> 8) & 0xFF;
-        int A = color & 0xFF;
-        return updateVertexColorAlpha(vertex, R / 255f, G / 255f, B / 255f, A / 255f);
-    }
-
-    public VertexBuffer updateVertexColorAlpha(int vertex, float r, float g, float b, float a) {
-        return updateVertexColorAlpha(vertex, r, g, b, a, 12);
-    }
-
-    public VertexBuffer updateVertexColorAlpha(int vertex, float r, float g, float b, float a, int offset) {
-        Preconditions.checkArgument(vertex < nowVertexes);
-        glBindBuffer(GL_ARRAY_BUFFER, id);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) vertex * size + offset, new float[]{r, g, b, a});
-        return this;
-    }
-
-    public VertexBuffer updateVertexUV(int vertex, float u, float v) {
-        return updateVertexUV(vertex, u, v, 24);
-    }
-
-    public VertexBuffer updateVertexUV(int vertex, float u, float v, int offset) {
-        Preconditions.checkArgument(vertex < nowVertexes);
-        glBindBuffer(GL_ARRAY_BUFFER, id);
-        glBufferSubData(GL_ARRAY_BUFFER, (long) vertex * size + offset, new float[]{u, v});
-        return this;
-    }
-
-    public VertexBuffer upload() {
-        int pos = vertices.position();
-        vertices.position(0);
-        vertices.limit(pos);
-        glBindBuffer(GL_ARRAY_BUFFER, id);
-        glBufferData(GL_ARRAY_BUFFER, vertices, mode);
-        return this;
-    }
-
-    public VertexBuffer setPointers() {
-        pointerSetter.run();
-        return this;
-    }
-
-    public void destroy() {
-        glDeleteBuffers(id);
-    }
-}
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.isam.render.vertex;
+
+import com.google.common.base.Preconditions;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL30.*;
+
+// The memory layout is described by the vertex format, default is VertexFormat.POSITION_COLOR_TEX
+// The vertices are in memory allocated by MemoryUtil, it is freed in destroy()
+
+public class VertexBuffer extends MeshBuilder {
+
+    private static int storageGenerations;
+
+    protected final int mode;
+    protected int id;
+    // Changed whenever the vertices move to another GL buffer. GL may give the name of a deleted buffer to a new one,
+    // so the names can't tell whether the attribute pointers are still valid.
+    protected int storageGeneration;
+    // Bytes of the storage allocated for the GL buffer
+    private int storage;
+    // Byte range of the vertices updated after the last upload
+    private int dirtyMin = Integer.MAX_VALUE;
+    private int dirtyMax = 0;
+
+    public VertexBuffer(int vertexes) {
+        this(vertexes, GL_STATIC_DRAW);
+    }
+
+    public VertexBuffer(int vertexes, int mode) {
+        this(vertexes, mode, VertexFormat.POSITION_COLOR_TEX);
+    }
+
+    public VertexBuffer(int vertexes, int mode, VertexFormat format) {
+        this(mode, format);
+        id = glGenBuffers();
+        storageGeneration = nextStorageGeneration();
+        vertices = MemoryUtil.memAlloc(Math.max(vertexes, 1) * size);
+    }
+
+    // The subclass should provide the GL buffer and the memory of the vertices
+    protected VertexBuffer(int mode, VertexFormat format) {
+        super(format);
+        this.mode = mode;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // Never 0 once the buffer has storage
+    public int getStorageGeneration() {
+        return storageGeneration;
+    }
+
+    // Generations of all the buffers and arena blocks, so a generation is never seen on two buffers
+    static int nextStorageGeneration() {
+        return ++storageGenerations;
+    }
+
+    // The index of the first vertex in the GL buffer, used as the base vertex when drawing
+    public int getBaseVertex() {
+        return 0;
+    }
+
+    // Discard all the vertices, the buffer can be filled again and uploaded without allocating
+    @Override
+    public VertexBuffer clear() {
+        super.clear();
+        dirtyMin = Integer.MAX_VALUE;
+        dirtyMax = 0;
+        return this;
+    }
+
+    // Replace the vertices with the vertices built by the builder, call upload() to update the GL buffer
+    public VertexBuffer load(MeshBuilder builder) {
+        Preconditions.checkArgument(builder.format == format, "The builder has another vertex format");
+        clear();
+        ensureSize(builder.nowVertexes);
+        MemoryUtil.memCopy(MemoryUtil.memAddress0(builder.vertices), MemoryUtil.memAddress0(vertices),
+                (long) builder.nowVertexes * size);
+        nowVertexes = builder.nowVertexes;
+        return this;
+    }
+
+    public VertexBuffer updateVertexPos(int vertex, float x, float y, float z) {
+        return updateVertex(vertex, checkElement(position, "position"), x, y, z, 1);
+    }
+
+    public VertexBuffer updateVertexColor(int vertex, int color) {
+        int R = (color >> 16) & 0xFF;
+        int G = (color >> 8) & 0xFF;
+        int B = color & 0xFF;
+        return updateVertexColor(vertex, R / 255f, G / 255f, B / 255f);
+    }
+
+    public VertexBuffer updateVertexColor(int vertex, float r, float g, float b) {
+        return updateVertexColorAlpha(vertex, r, g, b, 1);
+    }
+
+    public VertexBuffer updateVertexColorAlpha(int vertex, int color) {
+        int R = (color >> 24) & 0xFF;
+        int G = (color >> 16) & 0xFF;
+        int B = (color >> 8) & 0xFF;
+        int A = color & 0xFF;
+        return updateVertexColorAlpha(vertex, R / 255f, G / 255f, B / 255f, A / 255f);
+    }
+
+    public VertexBuffer updateVertexColorAlpha(int vertex, float r, float g, float b, float a) {
+        return updateVertex(vertex, checkElement(color, "color"), r, g, b, a);
+    }
+
+    public VertexBuffer updateVertexUV(int vertex, float u, float v) {
+        return updateVertex(vertex, checkElement(uv, "uv"), u, v, 0, 1);
+    }
+
+    public VertexBuffer updateVertex(int vertex, VertexFormat.Element element, float a, float b, float c, float d) {
+        int start = vertexStart(vertex);
+        element.put(vertices, start, a, b, c, d);
+        markDirty(start + element.offset, element.getSize());
+        return this;
+    }
+
+    protected int vertexStart(int vertex) {
+        Preconditions.checkArgument(vertex < nowVertexes);
+        return vertex * size;
+    }
+
+    // Updates only go into the vertices in memory, the GL buffer is updated in flush()
+    protected void markDirty(int index, int bytes) {
+        dirtyMin = Math.min(dirtyMin, index);
+        dirtyMax = Math.max(dirtyMax, index + bytes);
+    }
+
+    public boolean isDirty() {
+        return dirtyMin < dirtyMax;
+    }
+
+    // Upload the updated range of the vertices with one call, it is called when the vertex array is bound for drawing.
+    // The whole buffer is uploaded if the range reaches vertices appended after the storage was allocated.
+    public VertexBuffer flush() {
+        if (dirtyMin >= dirtyMax)
+            return this;
+        if (!hasStorage(dirtyMax))
+            return upload();
+        vertices.limit(dirtyMax);
+        vertices.position(dirtyMin);
+        uploadRange(dirtyMin, vertices);
+        vertices.clear();
+        dirtyMin = Integer.MAX_VALUE;
+        dirtyMax = 0;
+        return this;
+    }
+
+    @Override
+    public VertexBuffer truncate(int vertexes) {
+        super.truncate(vertexes);
+        dirtyMax = Math.min(dirtyMax, vertexes * size);
+        return this;
+    }
+
+    // Upload the vertices from the index, the vertices before it are in the GL buffer already. The whole buffer is
+    // uploaded if the storage of the GL buffer can't hold the vertices.
+    public VertexBuffer uploadFrom(int vertex) {
+        if (!hasStorage(nowVertexes * size))
+            return upload();
+        if (vertex < nowVertexes)
+            markDirty(vertex * size, (nowVertexes - vertex) * size);
+        return flush();
+    }
+
+    protected boolean hasStorage(int bytes) {
+        return bytes <= storage;
+    }
+
+    public VertexBuffer upload() {
+        vertices.limit(nowVertexes * size);
+        vertices.position(0);
+        uploadData(vertices);
+        vertices.clear();
+        dirtyMin = Integer.MAX_VALUE;
+        dirtyMax = 0;
+        return this;
+    }
+
+    // Replace the content of the GL buffer, the buffer is left bound to GL_ARRAY_BUFFER
+    // The storage is only reallocated when the vertices outgrow it
+    protected void uploadData(ByteBuffer data) {
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        if (data.remaining() > storage) {
+            storage = vertices.capacity();
+            glBufferData(GL_ARRAY_BUFFER, storage, mode);
+        }
+        glBufferSubData(GL_ARRAY_BUFFER, 0, data);
+    }
+
+    // Update the GL buffer at the byte offset of the vertices
+    protected void uploadRange(int offset, ByteBuffer data) {
+        glBindBuffer(GL_ARRAY_BUFFER, id);
+        glBufferSubData(GL_ARRAY_BUFFER, offset, data);
+    }
+
+    public VertexBuffer setPointers() {
+        return setPointers(0);
+    }
+
+    public VertexBuffer setPointers(int divisor) {
+        format.setupPointers(divisor);
+        return this;
+    }
+
+    public void destroy() {
+        glDeleteBuffers(id);
+        free();
+    }
+}
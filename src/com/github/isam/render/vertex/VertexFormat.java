@@ -0,0 +1,264 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.render.vertex;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL33.*;
+
+/**
+ * Describes the memory layout of a vertex. Every element is an attribute whose location is its index in the format,
+ * the offsets are aligned to 4 bytes.
+ */
+public class VertexFormat {
+
+    // | -- position -- | -- colorRGB -- | -- UV -- |
+    //         12               12            8       length = 32
+    public static final VertexFormat POSITION_COLOR_TEX = builder()
+            .add(Usage.POSITION, Type.FLOAT, 3, false)
+            .add(Usage.COLOR, Type.FLOAT, 3, false)
+            .add(Usage.UV, Type.FLOAT, 2, false)
+            .build();
+
+    // Position in pixels (2 shorts) | color RGBA (4 normalized bytes) | UV (2 half floats)
+    //              4                             4                             4      length = 12
+    // For the UI geometry, drawn with the projection of the renderer
+    public static final VertexFormat POSITION_COLOR_TEX_PACKED = builder()
+            .add(Usage.POSITION, Type.SHORT, 2, false)
+            .add(Usage.COLOR, Type.UNSIGNED_BYTE, 4, true)
+            .add(Usage.UV, Type.HALF_FLOAT, 2, false)
+            .build();
+
+    // Same as POSITION_COLOR_TEX_PACKED with the texture array layer as the third UV component
+    //              4                             4                             8      length = 16
+    public static final VertexFormat POSITION_COLOR_TEX_LAYER_PACKED = builder()
+            .add(Usage.POSITION, Type.SHORT, 2, false)
+            .add(Usage.COLOR, Type.UNSIGNED_BYTE, 4, true)
+            .add(Usage.UV, Type.HALF_FLOAT, 3, false)
+            .build();
+
+    // Per instance data for the instanced quad shaders, the corners of the quad come from gl_VertexID
+    // | -- rect x1 y1 x2 y2 (4 shorts in pixels) -- | -- UV rect u1 v1 u2 v2 (4 half floats) -- | -- RGBA -- |
+    //                       8                                            8                            4
+    // | -- texture array layer, padding (2 unsigned shorts) -- |
+    //                             4                               length = 24
+    public static final VertexFormat QUAD_INSTANCE = builder()
+            .add(Usage.GENERIC, Type.SHORT, 4, false)
+            .add(Usage.GENERIC, Type.HALF_FLOAT, 4, false)
+            .add(Usage.COLOR, Type.UNSIGNED_BYTE, 4, true)
+            .add(Usage.GENERIC, Type.UNSIGNED_SHORT, 2, false)
+            .build();
+
+    private final List<Element> elements;
+    private final Map<Usage, Element> usages = new EnumMap<>(Usage.class);
+    private final int stride;
+
+    private VertexFormat(List<Element> elements, int stride) {
+        this.elements = Collections.unmodifiableList(elements);
+        this.stride = stride;
+        for (Element element : elements)
+            usages.putIfAbsent(element.usage, element);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Element> getElements() {
+        return elements;
+    }
+
+    @Nullable
+    public Element getElement(Usage usage) {
+        return usages.get(usage);
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    // The vertex buffer must have been bound
+    public void setupPointers() {
+        setupPointers(0);
+    }
+
+    // Divisor 0 advances the attributes per vertex, 1 per instance
+    public void setupPointers(int divisor) {
+        setupPointers(divisor, 0);
+    }
+
+    // The attributes start from the byte offset in the buffer. Divisors are only set for instances, the vertex arrays
+    // start with divisor 0.
+    public void setupPointers(int divisor, long offset) {
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            glVertexAttribPointer(i, element.count, element.type.glType, element.normalized, stride,
+                    offset + element.offset);
+            glEnableVertexAttribArray(i);
+            if (divisor != 0)
+                glVertexAttribDivisor(i, divisor);
+        }
+    }
+
+    // Convert to IEEE 754 half precision float, rounding to nearest
+    public static short toHalfFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int abs = bits & 0x7FFFFFFF;
+        int rounded = abs + 0x1000;
+        if (rounded >= 0x47800000) {
+            if (abs >= 0x47800000) {
+                if (rounded < 0x7F800000)
+                    return (short) (sign | 0x7C00);
+                // Infinity or NaN
+                return (short) (sign | 0x7C00 | ((bits & 0x007FFFFF) >>> 13));
+            }
+            return (short) (sign | 0x7BFF);
+        }
+        if (rounded >= 0x38800000)
+            return (short) (sign | ((rounded - 0x38000000) >>> 13));
+        if (rounded < 0x33000000)
+            return (short) sign;
+        // Subnormal
+        int exponent = abs >>> 23;
+        int mantissa = (bits & 0x7FFFFF) | 0x800000;
+        return (short) (sign | ((mantissa + (0x800000 >>> (exponent - 102))) >>> (126 - exponent)));
+    }
+
+    public enum Usage {
+        POSITION, COLOR, UV, GENERIC
+    }
+
+    public enum Type {
+        FLOAT(4, GL_FLOAT) {
+            @Override
+            public void put(ByteBuffer buffer, int index, float value, boolean normalized) {
+                buffer.putFloat(index, value);
+            }
+        },
+        HALF_FLOAT(2, GL_HALF_FLOAT) {
+            @Override
+            public void put(ByteBuffer buffer, int index, float value, boolean normalized) {
+                buffer.putShort(index, toHalfFloat(value));
+            }
+        },
+        SHORT(2, GL_SHORT) {
+            @Override
+            public void put(ByteBuffer buffer, int index, float value, boolean normalized) {
+                if (normalized)
+                    value = Math.max(-1, Math.min(1, value)) * Short.MAX_VALUE;
+                else
+                    value = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+                buffer.putShort(index, (short) Math.round(value));
+            }
+        },
+        UNSIGNED_SHORT(2, GL_UNSIGNED_SHORT) {
+            @Override
+            public void put(ByteBuffer buffer, int index, float value, boolean normalized) {
+                if (normalized)
+                    value = Math.max(0, Math.min(1, value)) * 0xFFFF;
+                buffer.putShort(index, (short) Math.round(value));
+            }
+        },
+        BYTE(1, GL_BYTE) {
+            @Override
+            public void put(ByteBuffer buffer, int index, float value, boolean normalized) {
+                if (normalized)
+                    value = Math.max(-1, Math.min(1, value)) * Byte.MAX_VALUE;
+                buffer.put(index, (byte) Math.round(value));
+            }
+        },
+        UNSIGNED_BYTE(1, GL_UNSIGNED_BYTE) {
+            @Override
+            public void put(ByteBuffer buffer, int index, float value, boolean normalized) {
+                if (normalized)
+                    value = Math.max(0, Math.min(1, value)) * 0xFF;
+                buffer.put(index, (byte) Math.round(value));
+            }
+        };
+
+        public final int size;
+        public final int glType;
+
+        Type(int size, int glType) {
+            this.size = size;
+            this.glType = glType;
+        }
+
+        // Write a component at the absolute byte index
+        public abstract void put(ByteBuffer buffer, int index, float value, boolean normalized);
+    }
+
+    public static class Element {
+
+        public final Usage usage;
+        public final Type type;
+        public final int count;
+        public final boolean normalized;
+        public final int offset;
+
+        private Element(Usage usage, Type type, int count, boolean normalized, int offset) {
+            this.usage = usage;
+            this.type = type;
+            this.count = count;
+            this.normalized = normalized;
+            this.offset = offset;
+        }
+
+        public int getSize() {
+            return type.size * count;
+        }
+
+        // Write the components into the vertex starting at the byte index, components beyond the count are ignored
+        public void put(ByteBuffer buffer, int vertexStart, float a, float b, float c, float d) {
+            int index = vertexStart + offset;
+            type.put(buffer, index, a, normalized);
+            if (count > 1)
+                type.put(buffer, index + type.size, b, normalized);
+            if (count > 2)
+                type.put(buffer, index + type.size * 2, c, normalized);
+            if (count > 3)
+                type.put(buffer, index + type.size * 3, d, normalized);
+        }
+    }
+
+    public static class Builder {
+
+        private final List<Element> elements = new ArrayList<>();
+        private int offset;
+
+        public Builder add(Usage usage, Type type, int count, boolean normalized) {
+            Preconditions.checkArgument(count > 0 && count <= 4, "Invalid component count %s", count);
+            Element element = new Element(usage, type, count, normalized, offset);
+            elements.add(element);
+            offset += (element.getSize() + 3) & ~3;
+            return this;
+        }
+
+        public VertexFormat build() {
+            return new VertexFormat(new ArrayList<>(elements), offset);
+        }
+    }
+}
@@ -1,38 +1,38 @@
-/*
- * Copyright 2021 ISAM
- *
- *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-package com.github.isam.util;
-
-import java.util.function.Supplier;
-
-public class LazyLoadedValue<T> {
-
-    private Supplier<T> factory;
-
-    private T value;
-
-    public LazyLoadedValue(Supplier<T> supplier) {
-        factory = supplier;
-    }
-
-    public T get() {
-        Supplier<T> supplier = factory;
-        if (supplier != null) {
-            value = supplier.get();
-            factory = null;
-        }
-        return value;
-    }
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.github.isam.util;
+
+import java.util.function.Supplier;
+
+public class LazyLoadedValue<T> {
+
+    private Supplier<T> factory;
+
+    private T value;
+
+    public LazyLoadedValue(Supplier<T> supplier) {
+        factory = supplier;
+    }
+
+    public T get() {
+        Supplier<T> supplier = factory;
+        if (supplier != null) {
+            value = supplier.get();
+            factory = null;
+        }
+        return value;
+    }
 }
\ No newline at end of file
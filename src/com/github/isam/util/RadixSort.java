@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.github.isam.util;
+
+import java.util.Arrays;
+
+/**
+ * Stable LSD radix sort of unsigned long keys with an int value for every key, one pass for every byte of the keys.
+ * Bytes equal in all the keys are skipped, so keys with few distinct high bits sort in a few passes.
+ */
+public class RadixSort {
+
+    public static final int RADIX = 256;
+
+    // The scratch arrays must be as long as the keys and the counts RADIX long, so sorting allocates nothing. The
+    // sorted keys and values are in the input arrays.
+    public static void sort(long[] keys, int[] values, int length, long[] keyScratch, int[] valueScratch,
+                            int[] counts) {
+        if (length < 2)
+            return;
+        long[] fromKeys = keys;
+        int[] fromValues = values;
+        long[] toKeys = keyScratch;
+        int[] toValues = valueScratch;
+        // Bits differing between the keys
+        long differs = 0;
+        for (int i = 1; i < length; i++)
+            differs |= keys[i] ^ keys[0];
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            if ((differs >>> shift & 0xFF) == 0)
+                continue;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++)
+                counts[(int) (fromKeys[i] >>> shift) & 0xFF]++;
+            int offset = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = counts[digit];
+                counts[digit] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int index = counts[(int) (fromKeys[i] >>> shift) & 0xFF]++;
+                toKeys[index] = fromKeys[i];
+                toValues[index] = fromValues[i];
+            }
+            long[] swapKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swapKeys;
+            int[] swapValues = fromValues;
+            fromValues = toValues;
+            toValues = swapValues;
+        }
+        if (fromKeys != keys) {
+            System.arraycopy(fromKeys, 0, keys, 0, length);
+            System.arraycopy(fromValues, 0, values, 0, length);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtlasPackerTest {
+
+    private static void assertDisjoint(List<AtlasPacker.Rect> rects) {
+        for (int i = 0; i < rects.size(); i++)
+            for (int j = i + 1; j < rects.size(); j++) {
+                AtlasPacker.Rect a = rects.get(i);
+                AtlasPacker.Rect b = rects.get(j);
+                assertFalse(a.x < b.x + b.width && b.x < a.x + a.width && a.y < b.y + b.height &&
+                        b.y < a.y + a.height, a + " overlaps " + b);
+            }
+    }
+
+    private static long area(List<AtlasPacker.Rect> rects) {
+        long area = 0;
+        for (AtlasPacker.Rect rect : rects)
+            area += (long) rect.width * rect.height;
+        return area;
+    }
+
+    @Test
+    void packsInsideWithoutOverlap() {
+        AtlasPacker packer = new AtlasPacker(256, 256);
+        Random random = new Random(12);
+        List<AtlasPacker.Rect> packed = new ArrayList<>();
+        AtlasPacker.Rect rect;
+        while ((rect = packer.pack(4 + random.nextInt(28), 4 + random.nextInt(28))) != null) {
+            assertTrue(rect.x >= 0 && rect.y >= 0 && rect.x + rect.width <= 256 && rect.y + rect.height <= 256);
+            packed.add(rect);
+        }
+        assertDisjoint(packed);
+        assertEquals(packed.size(), packer.getPacked());
+        assertEquals(area(packed), packer.getUsedArea());
+        // The free space and the packed rectangles cover the page
+        List<AtlasPacker.Rect> all = new ArrayList<>(packed);
+        all.addAll(packer.getFreeSpace());
+        assertDisjoint(all);
+        assertEquals(256 * 256, area(all));
+    }
+
+    @Test
+    void reusesFreedSpace() {
+        AtlasPacker packer = new AtlasPacker(256, 256);
+        Random random = new Random(34);
+        List<AtlasPacker.Rect> packed = new ArrayList<>();
+        AtlasPacker.Rect rect;
+        while ((rect = packer.pack(4 + random.nextInt(28), 4 + random.nextInt(28))) != null)
+            packed.add(rect);
+        for (int i = packed.size() - 1; i >= 0; i -= 2)
+            packer.free(packed.remove(i));
+        assertEquals(area(packed), packer.getUsedArea());
+        assertNotNull(rect = packer.pack(8, 8));
+        packed.add(rect);
+        assertDisjoint(packed);
+    }
+
+    @Test
+    void mergesFreedNeighbours() {
+        AtlasPacker packer = new AtlasPacker(100, 100);
+        assertNotNull(packer.pack(50, 100));
+        AtlasPacker.Rect top = packer.pack(50, 50);
+        AtlasPacker.Rect bottom = packer.pack(50, 50);
+        assertNotNull(top);
+        assertNotNull(bottom);
+        assertNull(packer.pack(1, 1));
+        packer.free(top);
+        packer.free(bottom);
+        assertEquals(1, packer.getFreeRects());
+        assertNotNull(packer.pack(50, 100));
+    }
+
+    @Test
+    void resetsWhenEmpty() {
+        AtlasPacker packer = new AtlasPacker(64, 64);
+        List<AtlasPacker.Rect> packed = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            packed.add(packer.pack(3 + i % 7, 5 + i % 3));
+        packed.forEach(packer::free);
+        assertEquals(1, packer.getFreeRects());
+        assertEquals(0, packer.getUsedArea());
+        assertNotNull(packer.pack(64, 64));
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        AtlasPacker packer = new AtlasPacker(64, 64);
+        assertThrows(IllegalArgumentException.class, () -> packer.pack(0, 4));
+        assertNull(packer.pack(65, 1));
+        assertThrows(IllegalArgumentException.class, () -> packer.free(new AtlasPacker.Rect(60, 0, 8, 8)));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodepointMapTest {
+
+    @Test
+    void putGetRemove() {
+        CodepointMap<String> map = new CodepointMap<>();
+        assertNull(map.put('A', "A"));
+        assertNull(map.put(0x4E2D, "zhong"));
+        assertNull(map.put(0x1F600, "smile"));
+        assertEquals("A", map.put('A', "a"));
+        assertEquals(3, map.size());
+        assertEquals("a", map.get('A'));
+        assertEquals("zhong", map.get(0x4E2D));
+        assertEquals("smile", map.get(0x1F600));
+        assertNull(map.get(0x4E2E));
+        assertNull(map.get(0x1F601));
+        assertNull(map.get(-1));
+        assertEquals("smile", map.remove(0x1F600));
+        assertNull(map.remove(0x1F600));
+        assertEquals("zhong", map.remove(0x4E2D));
+        assertEquals(1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get('A'));
+    }
+
+    @Test
+    void rejectsInvalidEntries() {
+        CodepointMap<String> map = new CodepointMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, "x"));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Character.MAX_CODE_POINT + 1, "x"));
+        assertThrows(IllegalArgumentException.class, () -> map.put('x', null));
+    }
+
+    @Test
+    void removeSupplementaryKeepsProbeChains() {
+        CodepointMap<Integer> map = new CodepointMap<>();
+        IntList codepoints = new IntArrayList();
+        for (int codepoint = 0x20000; codepoint < 0x20000 + 4096; codepoint += 3) {
+            map.put(codepoint, codepoint);
+            codepoints.add(codepoint);
+        }
+        for (int i = 0; i < codepoints.size(); i += 2)
+            assertEquals(codepoints.getInt(i), map.remove(codepoints.getInt(i)));
+        for (int i = 0; i < codepoints.size(); i++)
+            assertEquals(i % 2 == 0 ? null : (Integer) codepoints.getInt(i), map.get(codepoints.getInt(i)));
+        assertEquals(codepoints.size() / 2, map.size());
+    }
+
+    @Test
+    void matchesHashMap() {
+        CodepointMap<Integer> map = new CodepointMap<>();
+        Int2ObjectMap<Integer> expected = new Int2ObjectOpenHashMap<>();
+        Random random = new Random(56);
+        for (int i = 0; i < 100000; i++) {
+            // Mostly a few pages of the BMP and a dense supplementary range, so keys are removed and put again
+            int codepoint = random.nextBoolean() ? random.nextInt(0x3000) : 0x1F000 + random.nextInt(0x800);
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(codepoint), map.remove(codepoint));
+            else
+                assertEquals(expected.put(codepoint, (Integer) i), map.put(codepoint, i));
+        }
+        assertEquals(expected.size(), map.size());
+        int[] visited = {0};
+        map.forEach((codepoint, value) -> {
+            assertEquals(expected.get(codepoint), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+
+    @Test
+    void visitsBmpInOrder() {
+        CodepointMap<String> map = new CodepointMap<>();
+        map.put(0x10400, "deseret");
+        map.put(0x4E2D, "zhong");
+        map.put('b', "b");
+        map.put('a', "a");
+        IntList order = new IntArrayList();
+        map.forEach((codepoint, value) -> order.add(codepoint));
+        assertEquals(IntArrayList.wrap(new int[]{'a', 'b', 0x4E2D, 0x10400}), order);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.font;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineBreakerTest {
+
+    // Every char is 10 pixels wide at size 10, no kerning
+    private static final FontMetrics MONOSPACE = new Monospace(true);
+
+    private static void assertLines(LineBreaks breaks, String text, String... lines) {
+        assertEquals(lines.length, breaks.getLineCount());
+        for (int i = 0; i < lines.length; i++)
+            assertEquals(lines[i], text.substring(breaks.getLineStart(i), breaks.getLineEnd(i)));
+    }
+
+    @Test
+    void measures() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 20);
+        assertEquals(60, breaker.measure("abc"), 1e-4);
+        assertEquals(20, breaker.measure("abc", 1, 2), 1e-4);
+        // Tabs are four spaces, a supplementary codepoint is one char
+        assertEquals(100, breaker.measure("\t😀"), 1e-4);
+    }
+
+    @Test
+    void breaksGreedy() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 10);
+        String text = "aaa bbb ccc";
+        LineBreaks breaks = breaker.breakGreedy(text, 70, new LineBreaks());
+        assertLines(breaks, text, "aaa bbb", "ccc");
+        assertEquals(70, breaks.getLineWidth(0), 1e-4);
+        assertEquals(30, breaks.getLineWidth(1), 1e-4);
+        assertEquals(70, breaks.getMaxLineWidth(), 1e-4);
+    }
+
+    @Test
+    void breaksLongWordsAndNewlines() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 10);
+        String word = "aaaaaaaaaa";
+        assertLines(breaker.breakGreedy(word, 35, new LineBreaks()), word, "aaa", "aaa", "aaa", "a");
+        String lines = "ab\ncd";
+        assertLines(breaker.breakGreedy(lines, 1000, new LineBreaks()), lines, "ab", "cd");
+        assertLines(breaker.breakOptimal(lines, 1000, new LineBreaks()), lines, "ab", "cd");
+    }
+
+    @Test
+    void breaksAroundIdeographs() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 10);
+        String text = "一二三四五";
+        assertLines(breaker.breakGreedy(text, 20, new LineBreaks()), text, "一二", "三四",
+                "五");
+    }
+
+    @Test
+    void breaksOptimal() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 10);
+        String text = "aaa bb cc ddddd";
+        // Greedy leaves a short second line, optimal breaking evens the first two out
+        assertLines(breaker.breakGreedy(text, 60, new LineBreaks()), text, "aaa bb", "cc", "ddddd");
+        assertLines(breaker.breakOptimal(text, 60, new LineBreaks()), text, "aaa", "bb cc", "ddddd");
+    }
+
+    @Test
+    void reusesBreaks() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 10);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            builder.append("word ");
+        String text = builder.toString();
+        LineBreaks breaks = new LineBreaks();
+        breaker.breakGreedy(text, 100, breaks);
+        // "word word" is 90 pixels wide
+        assertEquals(250, breaks.getLineCount());
+        breaker.breakOptimal("short", 100, breaks);
+        assertLines(breaks, "short", "short");
+    }
+
+    @Test
+    void ellipsizes() {
+        LineBreaker breaker = new LineBreaker(MONOSPACE, 10);
+        assertEquals("abcdef", breaker.ellipsize("abcdef", 60));
+        assertEquals("abc" + LineBreaker.ELLIPSIS, breaker.ellipsize("abcdef", 40));
+        // Whitespace before the ellipsis is dropped
+        assertEquals("ab" + LineBreaker.ELLIPSIS, breaker.ellipsize("ab cdef", 40));
+        LineBreaker fallback = new LineBreaker(new Monospace(false), 10);
+        assertEquals("...", fallback.getEllipsis());
+        assertEquals("a...", fallback.ellipsize("abcdef", 40));
+    }
+
+    private static class Monospace implements FontMetrics {
+
+        private final boolean ellipsis;
+
+        private Monospace(boolean ellipsis) {
+            this.ellipsis = ellipsis;
+        }
+
+        @Override
+        public int getSize() {
+            return 10;
+        }
+
+        @Override
+        public float getAdvance(int codepoint) {
+            return codepoint == '\t' ? 40 : 10;
+        }
+
+        @Override
+        public float getKerning(int left, int right) {
+            return 0;
+        }
+
+        @Override
+        public boolean hasGlyph(int codepoint) {
+            return codepoint != 0x2026 || ellipsis;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.render.vertex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexFormatTest {
+
+    // Reference decoding of a half float
+    private static float fromHalfFloat(short half) {
+        int sign = half >> 15 & 1;
+        int exponent = half >> 10 & 0x1F;
+        int mantissa = half & 0x3FF;
+        float value;
+        if (exponent == 0)
+            value = mantissa * 0x1p-24f;
+        else if (exponent == 0x1F)
+            value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        else
+            value = (1 + mantissa / 1024f) * (float) Math.pow(2, exponent - 15);
+        return sign == 0 ? value : -value;
+    }
+
+    private static void assertHalf(int expected, float value) {
+        assertEquals((short) expected, VertexFormat.toHalfFloat(value), () -> "Half float of " + value);
+    }
+
+    @Test
+    void convertsKnownValues() {
+        assertHalf(0x0000, 0);
+        assertHalf(0x8000, -0f);
+        assertHalf(0x3C00, 1);
+        assertHalf(0xC000, -2);
+        assertHalf(0x3800, 0.5f);
+        assertHalf(0x3555, 1 / 3f);
+        assertHalf(0x7BFF, 65504);
+        assertHalf(0x0400, 0x1p-14f);
+        assertHalf(0x0001, 0x1p-24f);
+        assertHalf(0x0000, 1e-10f);
+        assertHalf(0x7C00, 1e6f);
+        assertHalf(0xFC00, Float.NEGATIVE_INFINITY);
+        short nan = VertexFormat.toHalfFloat(Float.NaN);
+        assertEquals(0x7C00, nan & 0x7C00);
+        assertNotEquals(0, nan & 0x3FF);
+    }
+
+    @Test
+    void roundTripsEveryHalf() {
+        for (int bits = 0; bits < 0x10000; bits++) {
+            short half = (short) bits;
+            float value = fromHalfFloat(half);
+            if (Float.isNaN(value))
+                continue;
+            assertEquals(half, VertexFormat.toHalfFloat(value), "Half float " + Integer.toHexString(bits));
+        }
+    }
+
+    @Test
+    void roundsToNearest() {
+        // 1 + 2^-11 is between 1 and the next half 1 + 2^-10
+        assertEquals(1, fromHalfFloat(VertexFormat.toHalfFloat(1 + 0x1p-12f)));
+        assertEquals(1 + 0x1p-10f, fromHalfFloat(VertexFormat.toHalfFloat(1 + 0x1p-11f + 0x1p-13f)));
+        float uv = 0.123456f;
+        assertEquals(uv, fromHalfFloat(VertexFormat.toHalfFloat(uv)), 0x1p-12f);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 ISAM
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package com.github.isam.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixSortTest {
+
+    private static void sort(long[] keys, int[] values, int length) {
+        RadixSort.sort(keys, values, length, new long[keys.length], new int[keys.length], new int[RadixSort.RADIX]);
+    }
+
+    @Test
+    void sortsUnsigned() {
+        Random random = new Random(78);
+        long[] keys = new long[1000];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            values[i] = i;
+        }
+        long[] original = keys.clone();
+        sort(keys, values, keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(original[values[i]], keys[i]);
+            if (i > 0)
+                assertTrue(Long.compareUnsigned(keys[i - 1], keys[i]) <= 0);
+        }
+    }
+
+    @Test
+    void keepsOrderOfEqualKeys() {
+        Random random = new Random(90);
+        long[] keys = new long[1000];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            // Few distinct keys differing only in high bits, the low bytes are skipped
+            keys[i] = (long) random.nextInt(8) << 48;
+            values[i] = i;
+        }
+        sort(keys, values, keys.length);
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(keys[i - 1] <= keys[i]);
+            if (keys[i - 1] == keys[i])
+                assertTrue(values[i - 1] < values[i]);
+        }
+    }
+
+    @Test
+    void sortsOnlyTheLength() {
+        long[] keys = {3, 1, 2, 0, -1};
+        int[] values = {0, 1, 2, 3, 4};
+        sort(keys, values, 3);
+        assertArrayEquals(new long[]{1, 2, 3, 0, -1}, keys);
+        assertArrayEquals(new int[]{1, 2, 0, 3, 4}, values);
+        long[] same = {5, 5, 5};
+        int[] sameValues = {0, 1, 2};
+        sort(same, sameValues, same.length);
+        assertArrayEquals(new int[]{0, 1, 2}, sameValues);
+    }
+}